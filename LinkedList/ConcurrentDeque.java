@@ -0,0 +1,386 @@
+/*
+
+    Implementation of a Lock-Free Concurrent Deque of ints (Doubly Linked List)
+
+    Let Discuss About The Concurrent Deque:
+    - Deque.java changes front, rear and size with plain field writes. If two threads insert at
+      the same time, both read the same rear and one of the nodes is lost; size gets lost updates.
+    - This Deque can be used by any number of threads at both ends at the same time (producers and
+      consumers of a shared work list), and no thread ever takes a lock.
+    - Like ConcurrentLinkedDeque, but the payload is a primitive int, so nothing is boxed.
+
+    How it works (Maged Michael, "CAS-Based Lock-Free Algorithm for Shared Deques"):
+    - Nodes form a doubly linked list. Both ends live together in ONE immutable Anchor object:
+          anchor = (left node, right node, status)
+      Changing an end means creating a new Anchor and installing it with a single CAS, so the
+      two ends can never get out of sync (no double-width CAS needed).
+    - Deletion: one CAS on anchor moves the end pointer to the neighbour. Then the neighbour's
+      link back to the deleted node is cleared (with a CAS, in case a concurrent insert already
+      replaced it). Without that, every deleted node would stay reachable through a chain of
+      back-links and a deque that never empties would leak memory.
+    - Insertion at the right end (the left end is the mirror image):
+        1. new node.left = old right node
+        2. CAS anchor to (left, new node, RPUSH): the element is in the deque now, but the old
+           right node's right link does not point to the new node yet
+        3. "stabilize": CAS old right node.right to the new node, then CAS the status back to STABLE
+    - While the status is not STABLE, other threads first help finish step 3 and then retry their
+      own operation. So a thread that stops in the middle of an insert can not block the others.
+    - Each Anchor is a new object and the GC never reuses memory that is still referenced, so the
+      CAS on anchor has no ABA problem.
+
+    Size: a LongAdder (a striped counter) is incremented after an insert and decremented after a
+    deletion. Threads at different ends do not fight over one counter field. size() adds the
+    stripes up; it is exact when no operation is running, an estimate while they are.
+
+Operations on Concurrent Deque:
+    1. Insertion at the front      offerFirst   O(1)
+    2. Insertion at the rear       offerLast    O(1)
+    3. Deletion from the front     pollFirst    O(1)
+    4. Deletion from the rear      pollLast     O(1)
+    5. Peek at the front / rear    peekFirst / peekLast
+    6. Checking if the Deque is empty
+    7. Getting the size of the Deque
+
+    pollFirst, pollLast and the peeks return EMPTY when the Deque is empty.
+
+*/
+
+
+
+package LinkedList;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrentDeque {
+
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    private static final int STABLE = 0, RPUSH = 1, LPUSH = 2;
+
+    static final class Node {
+        final int data;
+        volatile Node left, right;
+
+        Node(int d) {
+            data = d;
+        }
+    }
+
+    private static final class Anchor {
+        final Node left, right;
+        final int status;
+
+        Anchor(Node left, Node right, int status) {
+            this.left = left;
+            this.right = right;
+            this.status = status;
+        }
+    }
+
+    private static final Anchor EMPTY_ANCHOR = new Anchor(null, null, STABLE);
+
+    private static final VarHandle LEFT;
+    private static final VarHandle RIGHT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            LEFT = lookup.findVarHandle(Node.class, "left", Node.class);
+            RIGHT = lookup.findVarHandle(Node.class, "right", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final AtomicReference<Anchor> anchor = new AtomicReference<>(EMPTY_ANCHOR);
+    private final LongAdder size = new LongAdder();
+
+    public boolean offerFirst(int value) {
+        Node node = new Node(value);
+        while (true) {
+            Anchor a = anchor.get();
+            if (a.left == null) {
+                if (anchor.compareAndSet(a, new Anchor(node, node, STABLE))) {
+                    break;
+                }
+            } else if (a.status == STABLE) {
+                node.right = a.left;
+                Anchor pushed = new Anchor(node, a.right, LPUSH);
+                if (anchor.compareAndSet(a, pushed)) {
+                    stabilize(pushed);
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        size.increment();
+        return true;
+    }
+
+    public boolean offerLast(int value) {
+        Node node = new Node(value);
+        while (true) {
+            Anchor a = anchor.get();
+            if (a.right == null) {
+                if (anchor.compareAndSet(a, new Anchor(node, node, STABLE))) {
+                    break;
+                }
+            } else if (a.status == STABLE) {
+                node.left = a.right;
+                Anchor pushed = new Anchor(a.left, node, RPUSH);
+                if (anchor.compareAndSet(a, pushed)) {
+                    stabilize(pushed);
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        size.increment();
+        return true;
+    }
+
+    public int pollFirst() {
+        while (true) {
+            Anchor a = anchor.get();
+            if (a.left == null) {
+                return EMPTY;
+            }
+            if (a.left == a.right) {
+                if (anchor.compareAndSet(a, EMPTY_ANCHOR)) {
+                    size.decrement();
+                    return a.left.data;
+                }
+            } else if (a.status == STABLE) {
+                Node popped = a.left;
+                Node newLeft = popped.right;
+                if (anchor.compareAndSet(a, new Anchor(newLeft, a.right, STABLE))) {
+                    // Cut the back-link, or every popped node stays reachable from the deque.
+                    // A CAS, so a link that an offerFirst already replaced is left alone.
+                    LEFT.compareAndSet(newLeft, popped, null);
+                    size.decrement();
+                    return popped.data;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+    }
+
+    public int pollLast() {
+        while (true) {
+            Anchor a = anchor.get();
+            if (a.right == null) {
+                return EMPTY;
+            }
+            if (a.left == a.right) {
+                if (anchor.compareAndSet(a, EMPTY_ANCHOR)) {
+                    size.decrement();
+                    return a.right.data;
+                }
+            } else if (a.status == STABLE) {
+                Node popped = a.right;
+                Node newRight = popped.left;
+                if (anchor.compareAndSet(a, new Anchor(a.left, newRight, STABLE))) {
+                    RIGHT.compareAndSet(newRight, popped, null);
+                    size.decrement();
+                    return popped.data;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+    }
+
+    public int peekFirst() {
+        Node first = anchor.get().left;
+        return first == null ? EMPTY : first.data;
+    }
+
+    public int peekLast() {
+        Node last = anchor.get().right;
+        return last == null ? EMPTY : last.data;
+    }
+
+    // Same as peekFirst, like java.util.Deque.peek
+    public int peek() {
+        return peekFirst();
+    }
+
+    public boolean isEmpty() {
+        return anchor.get().left == null;
+    }
+
+    public int size() {
+        return (int) Math.max(0, size.sum());
+    }
+
+    // Finishes a half-done insert: links the old end node to the new one, then marks the anchor
+    // STABLE again. Any thread can do this; if anchor changed in between, someone else did it.
+    private void stabilize(Anchor a) {
+        if (a.status == RPUSH) {
+            Node newRight = a.right;
+            Node prev = newRight.left;
+            if (anchor.get() != a) {
+                return;
+            }
+            Node prevNext = prev.right;
+            if (prevNext != newRight) {
+                if (anchor.get() != a || !RIGHT.compareAndSet(prev, prevNext, newRight)) {
+                    return;
+                }
+            }
+        } else if (a.status == LPUSH) {
+            Node newLeft = a.left;
+            Node next = newLeft.right;
+            if (anchor.get() != a) {
+                return;
+            }
+            Node nextPrev = next.left;
+            if (nextPrev != newLeft) {
+                if (anchor.get() != a || !LEFT.compareAndSet(next, nextPrev, newLeft)) {
+                    return;
+                }
+            }
+        } else {
+            return;
+        }
+        anchor.compareAndSet(a, new Anchor(a.left, a.right, STABLE));
+    }
+
+    // Front to rear. Only meant for a Deque that no other thread is changing right now.
+    public String toString() {
+        Anchor a = anchor.get();
+        while (a.status != STABLE) {
+            stabilize(a);
+            a = anchor.get();
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Node node = a.left; node != null; node = node == a.right ? null : node.right) {
+            sb.append(node.data).append(" ");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+
+        // creation of Concurrent Deque
+        ConcurrentDeque deque = new ConcurrentDeque();
+        deque.offerLast(10);
+        deque.offerLast(20);
+        deque.offerFirst(5);
+        System.out.println(deque);
+
+        System.out.println("Deleted from rear: " + deque.pollLast());
+        System.out.println("Deleted from front: " + deque.pollFirst());
+        System.out.println("Front: " + deque.peekFirst() + ", rear: " + deque.peekLast());
+        System.out.println("Size of Deque: " + deque.size());
+
+        // Shared work list: 2 producers insert at the rear, 2 producers at the front,
+        // 2 consumers take from the front and 2 from the rear at the same time
+        ConcurrentDeque work = new ConcurrentDeque();
+        int perProducer = 250_000;
+        int producers = 4;
+        long[] taken = new long[4];
+        long[] takenSum = new long[4];
+        AtomicInteger producersLeft = new AtomicInteger(producers);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < producers; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    if (id % 2 == 0) {
+                        work.offerLast(i);
+                    } else {
+                        work.offerFirst(i);
+                    }
+                }
+                producersLeft.decrementAndGet();
+            });
+        }
+        for (int t = 0; t < 4; t++) {
+            final int id = t;
+            threads[producers + t] = new Thread(() -> {
+                while (true) {
+                    int task = id % 2 == 0 ? work.pollFirst() : work.pollLast();
+                    if (task != EMPTY) {
+                        taken[id]++;
+                        takenSum[id] += task;
+                    } else if (producersLeft.get() == 0 && work.isEmpty()) {
+                        break;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long count = 0;
+        long sum = 0;
+        for (int t = 0; t < 4; t++) {
+            count += taken[t];
+            sum += takenSum[t];
+        }
+        long expectedSum = (long) producers * perProducer * (perProducer + 1) / 2;
+        System.out.println("Tasks taken: " + count + " of " + (long) producers * perProducer);
+        System.out.println("Sum matches: " + (sum == expectedSum) + ", size at the end: " + work.size());
+
+        // Memory check: 5 million FIFO operations in each direction while the Deque never
+        // becomes empty. Deleted nodes must be garbage, so the heap after GC stays flat.
+        System.out.println("Heap growth over 5000000 FIFO operations: "
+                + heapGrowth(true) + " (rear to front), " + heapGrowth(false) + " (front to rear)");
+    }
+
+    private static String heapGrowth(boolean towardsFront) {
+        ConcurrentDeque fifo = new ConcurrentDeque();
+        fifo.offerLast(0);
+        Runtime runtime = Runtime.getRuntime();
+        long firstUsed = 0;
+        long maxGrowth = 0;
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 1_000_000; i++) {
+                if (towardsFront) {
+                    fifo.offerLast(i);
+                    fifo.pollFirst();
+                } else {
+                    fifo.offerFirst(i);
+                    fifo.pollLast();
+                }
+            }
+            System.gc();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+            if (round == 0) {
+                firstUsed = used;
+            }
+            maxGrowth = Math.max(maxGrowth, used - firstUsed);
+        }
+        return maxGrowth < 8 * 1024 * 1024 ? "bounded" : maxGrowth / (1024 * 1024) + " MB";
+    }
+}
+
+
+
+
+/*
+
+sample Output:
+5 10 20
+Deleted from rear: 20
+Deleted from front: 5
+Front: 10, rear: 10
+Size of Deque: 1
+Tasks taken: 1000000 of 1000000
+Sum matches: true, size at the end: 0
+Heap growth over 5000000 FIFO operations: bounded (rear to front), bounded (front to rear)
+
+*/
@@ -0,0 +1,281 @@
+/*
+
+ConcurrentSkipList: lock-free sorted set of ints, the concurrent variant of SkipList.
+Algorithm from Herlihy and Shavit, "The Art of Multiprocessor Programming" (LockFreeSkipList).
+
+Same shape as SkipList (random levels with p = 1/4, per-node next[] arrays), but:
+    - Every link is an AtomicMarkableReference: a pointer plus a "deleted" mark bit that are
+      changed together with one CAS.
+    - delete(key) first MARKS the node's links from the top level down to level 0. The thread
+      that marks level 0 has logically deleted the key. Marked nodes are then physically
+      unlinked by whoever walks past them (delete itself or any later insert/delete).
+    - insert(key) links the new node on level 0 with a CAS: at that moment the key is in the set.
+      Then it links the higher levels one by one; if a CAS fails because the neighbours changed,
+      it searches again and retries that level.
+    - contains(key) never writes and never retries: it walks the list and skips marked nodes.
+      Readers are wait-free and never block writers.
+
+No locks anywhere, so a thread that is paused in the middle of an operation can not stop the
+others. size() is a LongAdder: many threads can count without fighting over one counter, and the
+value is exact once the updates have finished.
+
+*/
+
+package LinkedList;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+public class ConcurrentSkipList {
+
+    private static final int MAX_LEVEL = 24;
+
+    private static final class Node {
+        final long key;         // int keys; head and tail use Long.MIN_VALUE / Long.MAX_VALUE
+        final AtomicMarkableReference<Node>[] next;
+        final int topLevel;
+
+        @SuppressWarnings("unchecked")
+        Node(long key, int height) {
+            this.key = key;
+            this.topLevel = height - 1;
+            this.next = (AtomicMarkableReference<Node>[]) new AtomicMarkableReference<?>[height];
+        }
+    }
+
+    private final Node head = new Node(Long.MIN_VALUE, MAX_LEVEL);
+    private final Node tail = new Node(Long.MAX_VALUE, MAX_LEVEL);
+    private final LongAdder size = new LongAdder();
+
+    public ConcurrentSkipList() {
+        for (int i = 0; i < MAX_LEVEL; i++) {
+            head.next[i] = new AtomicMarkableReference<>(tail, false);
+            tail.next[i] = new AtomicMarkableReference<>(null, false);
+        }
+    }
+
+    public boolean insert(int key) {
+        int height = randomHeight();
+        Node[] preds = new Node[MAX_LEVEL];
+        Node[] succs = new Node[MAX_LEVEL];
+        while (true) {
+            if (find(key, preds, succs)) {
+                return false;
+            }
+            Node node = new Node(key, height);
+            for (int i = 0; i < height; i++) {
+                node.next[i] = new AtomicMarkableReference<>(succs[i], false);
+            }
+            // Linking level 0 is the moment the key becomes part of the set
+            if (!preds[0].next[0].compareAndSet(succs[0], node, false, false)) {
+                continue;
+            }
+            size.increment();
+            for (int i = 1; i < height; i++) {
+                while (true) {
+                    Node succ = node.next[i].getReference();
+                    if (node.next[i].isMarked()) {
+                        return true;    // already being deleted, no need to link higher
+                    }
+                    if (succ != succs[i] && !node.next[i].compareAndSet(succ, succs[i], false, false)) {
+                        continue;
+                    }
+                    if (preds[i].next[i].compareAndSet(succs[i], node, false, false)) {
+                        break;
+                    }
+                    find(key, preds, succs);
+                }
+            }
+            return true;
+        }
+    }
+
+    public boolean delete(int key) {
+        Node[] preds = new Node[MAX_LEVEL];
+        Node[] succs = new Node[MAX_LEVEL];
+        if (!find(key, preds, succs)) {
+            return false;
+        }
+        Node node = succs[0];
+        boolean[] marked = {false};
+        // Mark the upper levels, top down
+        for (int i = node.topLevel; i >= 1; i--) {
+            Node succ = node.next[i].get(marked);
+            while (!marked[0]) {
+                node.next[i].compareAndSet(succ, succ, false, true);
+                succ = node.next[i].get(marked);
+            }
+        }
+        // Whoever marks level 0 has deleted the key
+        Node succ = node.next[0].get(marked);
+        while (true) {
+            boolean iMarkedIt = node.next[0].compareAndSet(succ, succ, false, true);
+            succ = node.next[0].get(marked);
+            if (iMarkedIt) {
+                size.decrement();
+                find(key, preds, succs);    // unlinks the node
+                return true;
+            }
+            if (marked[0]) {
+                return false;               // another thread deleted it first
+            }
+        }
+    }
+
+    // Wait-free: only reads, skips nodes that are marked as deleted
+    public boolean contains(int key) {
+        boolean[] marked = {false};
+        Node pred = head;
+        Node curr = null;
+        for (int i = MAX_LEVEL - 1; i >= 0; i--) {
+            curr = pred.next[i].getReference();
+            while (true) {
+                Node succ = curr.next[i].get(marked);
+                while (marked[0]) {
+                    curr = succ;
+                    succ = curr.next[i].get(marked);
+                }
+                if (curr.key < key) {
+                    pred = curr;
+                    curr = succ;
+                } else {
+                    break;
+                }
+            }
+        }
+        return curr.key == key;
+    }
+
+    // Calls action for every key in [from, to) that is not deleted, in ascending order.
+    // Weakly consistent: keys inserted or deleted during the walk may or may not be seen.
+    public void forEachInRange(int from, int to, IntConsumer action) {
+        Node[] preds = new Node[MAX_LEVEL];
+        Node[] succs = new Node[MAX_LEVEL];
+        find(from, preds, succs);
+        boolean[] marked = {false};
+        for (Node x = succs[0]; x != tail && x.key < to; ) {
+            Node next = x.next[0].get(marked);
+            if (!marked[0]) {
+                action.accept((int) x.key);
+            }
+            x = next;
+        }
+    }
+
+    public int size() {
+        return (int) size.sum();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Fills preds/succs with the neighbours of key on every level and unlinks marked nodes on
+    // the way. Returns true if an unmarked node with this key is in the list.
+    private boolean find(int key, Node[] preds, Node[] succs) {
+        boolean[] marked = {false};
+        retry:
+        while (true) {
+            Node pred = head;
+            for (int i = MAX_LEVEL - 1; i >= 0; i--) {
+                Node curr = pred.next[i].getReference();
+                while (true) {
+                    Node succ = curr.next[i].get(marked);
+                    while (marked[0]) {
+                        if (!pred.next[i].compareAndSet(curr, succ, false, false)) {
+                            continue retry;
+                        }
+                        curr = succ;
+                        succ = curr.next[i].get(marked);
+                    }
+                    if (curr.key < key) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[i] = pred;
+                succs[i] = curr;
+            }
+            return succs[0].key == key;
+        }
+    }
+
+    // Height 1 with probability 3/4, 2 with 3/16, ... like SkipList
+    private static int randomHeight() {
+        long bits = ThreadLocalRandom.current().nextLong() | (1L << (2 * (MAX_LEVEL - 1)));
+        return 1 + Long.numberOfTrailingZeros(bits) / 2;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentSkipList set = new ConcurrentSkipList();
+        for (int key : new int[] {30, 10, 50, 20, 40}) {
+            set.insert(key);
+        }
+        set.delete(20);
+        System.out.print("Set: ");
+        set.forEachInRange(Integer.MIN_VALUE, Integer.MAX_VALUE, key -> System.out.print(key + " "));
+        System.out.println();
+        System.out.println("Contains 40? " + set.contains(40) + ", contains 20? " + set.contains(20));
+
+        // 4 writers insert even keys and delete every fourth one, 4 readers search at the same time
+        ConcurrentSkipList shared = new ConcurrentSkipList();
+        int perWriter = 100_000;
+        Thread[] threads = new Thread[8];
+        long[] hits = new long[4];
+        for (int t = 0; t < 4; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = id; i < 4 * perWriter; i += 4) {
+                    shared.insert(2 * i);
+                }
+                for (int i = id; i < 4 * perWriter; i += 4) {
+                    if (i % 4 == 0) {
+                        shared.delete(2 * i);
+                    }
+                }
+            });
+            threads[4 + t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 200_000; i++) {
+                    if (shared.contains(random.nextInt(8 * perWriter))) {
+                        hits[id]++;
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        int odd = 0;
+        int missing = 0;
+        for (int i = 0; i < 4 * perWriter; i++) {
+            boolean present = shared.contains(2 * i);
+            if (present == (i % 4 == 0)) {
+                missing++;
+            }
+            if (shared.contains(2 * i + 1)) {
+                odd++;
+            }
+        }
+        System.out.println("Size after concurrent updates: " + shared.size() + " (expected " + 3 * perWriter + ")");
+        System.out.println("Wrong membership: " + missing + ", odd keys found: " + odd);
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Set: 10 30 40 50 
+Contains 40? true, contains 20? false
+Size after concurrent updates: 300000 (expected 300000)
+Wrong membership: 0, odd keys found: 0
+
+*/
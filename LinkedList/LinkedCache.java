@@ -0,0 +1,458 @@
+/*
+
+LinkedCache: a bounded int -> int cache with O(1) get, put and eviction, and no boxing.
+Built from the circular doubly linked list of CircularDoubleLinkedList.java plus a hash index.
+
+Two parts:
+    1. Hash index (open addressing, linear probing) from key to node, so get does not have to
+       walk the list like the do...while search in CircularDoubleLinkedList does.
+           table[slot] = node index + 1   (0 = empty slot)
+       Deleting uses backward shift: the entries after the hole that belong before it are moved
+       back, so no "deleted" markers pile up and lookups stay short.
+    2. Circular doubly linked recency lists. Like PooledLinkedList, nodes are slots in parallel
+       arrays (keys[], values[], next[], prev[]) and links are indices.
+           head     = most recently used
+           head.prev = tail = least recently used (the list is circular, so no tail pointer)
+       Move-to-front is unlink + link at head, O(1). When the node is already the tail, moving
+       it to the front is just head = tail: the circle rotates by one and no link changes.
+
+Eviction policies (EvictionPolicy):
+    LRU            one list; a hit moves the node to the front, the tail is evicted.
+    SEGMENTED_LRU  two lists. New keys go to the PROBATION list. A hit in probation promotes the
+                   key to the PROTECTED list (80% of the capacity); when protected is full its
+                   tail is demoted back to probation. Victims come from probation, so a one-time
+                   scan over many keys can not push out keys that were used twice.
+    LFU            one list per use count 1..255 (counts stop at 255). A hit moves the node to
+                   the list of count + 1. minFrequency remembers the lowest non-empty list, and
+                   the victim is the least recently used key of that list. All O(1).
+
+When the cache is full, put evicts one key and calls the EvictionListener (if any) with it.
+hits, misses and evictions are counted. getOrLoad(key, loader) is the usual "cache in front of a
+slow lookup": on a miss it calls the loader and stores the result.
+
+Not thread-safe: use one cache per thread or synchronize around it.
+
+*/
+
+package LinkedList;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+public class LinkedCache {
+
+    public enum EvictionPolicy {
+        LRU, SEGMENTED_LRU, LFU
+    }
+
+    // Called with the key and value that were evicted to make room
+    public interface EvictionListener {
+        void onEviction(int key, int value);
+    }
+
+    private static final int NIL = -1;
+    private static final int PROBATION = 0, PROTECTED = 1;
+    private static final int MAX_FREQUENCY = 255;
+
+    private final int capacity;
+    private final EvictionPolicy policy;
+    private final EvictionListener listener;
+
+    // Nodes
+    private final int[] keys, values, next, prev;
+    private final int[] list;           // which list the node is in (LFU: its use count)
+    private int freeHead;
+    private int size;
+
+    // Lists: head node of each circular list and its length
+    private final int[] listHead, listSize;
+    private final int protectedCapacity;
+    private int minFrequency = 1;
+
+    // Hash index
+    private final int[] table;
+    private final int mask;
+    private final int shift;            // 32 - log2(table length)
+
+    private long hits, misses, evictions;
+
+    public LinkedCache(int capacity) {
+        this(capacity, EvictionPolicy.LRU, null);
+    }
+
+    public LinkedCache(int capacity, EvictionPolicy policy, EvictionListener listener) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        if (capacity > 1 << 29) {
+            throw new IllegalArgumentException("Capacity too large: " + capacity);
+        }
+        this.capacity = capacity;
+        this.policy = policy;
+        this.listener = listener;
+        keys = new int[capacity];
+        values = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        list = new int[capacity];
+        for (int i = 0; i < capacity - 1; i++) {
+            next[i] = i + 1;
+        }
+        next[capacity - 1] = NIL;
+        freeHead = 0;
+
+        int lists = policy == EvictionPolicy.LFU ? MAX_FREQUENCY + 1 : 2;
+        listHead = new int[lists];
+        listSize = new int[lists];
+        Arrays.fill(listHead, NIL);
+        protectedCapacity = Math.max(1, capacity * 4 / 5);
+
+        // Table at most half full
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        table = new int[tableSize];
+        mask = tableSize - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(tableSize);
+    }
+
+    // Value for the key, or defaultValue if it is not cached
+    public int get(int key, int defaultValue) {
+        int node = findNode(key);
+        if (node == NIL) {
+            misses++;
+            return defaultValue;
+        }
+        hits++;
+        touch(node);
+        return values[node];
+    }
+
+    // Cached value, or loader.applyAsInt(key) which is then cached
+    public int getOrLoad(int key, IntUnaryOperator loader) {
+        int node = findNode(key);
+        if (node != NIL) {
+            hits++;
+            touch(node);
+            return values[node];
+        }
+        misses++;
+        int value = loader.applyAsInt(key);
+        insert(key, value);
+        return value;
+    }
+
+    public boolean containsKey(int key) {
+        return findNode(key) != NIL;
+    }
+
+    // Adds or replaces the value. Replacing counts as a use of the key.
+    public void put(int key, int value) {
+        int node = findNode(key);
+        if (node != NIL) {
+            values[node] = value;
+            touch(node);
+        } else {
+            insert(key, value);
+        }
+    }
+
+    // Removes the key without calling the EvictionListener. Returns false if it was not cached.
+    public boolean remove(int key) {
+        int node = findNode(key);
+        if (node == NIL) {
+            return false;
+        }
+        removeNode(node);
+        return true;
+    }
+
+    public void clear() {
+        while (size > 0) {
+            removeNode(listHead[firstNonEmptyList()]);
+        }
+        minFrequency = 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public EvictionPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getHitCount() {
+        return hits;
+    }
+
+    public long getMissCount() {
+        return misses;
+    }
+
+    public long getEvictionCount() {
+        return evictions;
+    }
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    // ---------------------------------------------------------------- policy
+
+    private void insert(int key, int value) {
+        if (size == capacity) {
+            int victim = victim();
+            int victimKey = keys[victim];
+            int victimValue = values[victim];
+            removeNode(victim);
+            evictions++;
+            if (listener != null) {
+                listener.onEviction(victimKey, victimValue);
+            }
+        }
+        int node = freeHead;
+        freeHead = next[node];
+        keys[node] = key;
+        values[node] = value;
+        size++;
+        tableInsert(key, node);
+        switch (policy) {
+            case LRU:
+                linkFront(0, node);
+                break;
+            case SEGMENTED_LRU:
+                linkFront(PROBATION, node);
+                break;
+            case LFU:
+                linkFront(1, node);
+                minFrequency = 1;
+                break;
+        }
+    }
+
+    // Records a use of the node
+    private void touch(int node) {
+        int l = list[node];
+        switch (policy) {
+            case LRU:
+                moveToFront(node);
+                break;
+            case SEGMENTED_LRU:
+                if (l == PROTECTED) {
+                    moveToFront(node);
+                } else {
+                    unlink(node);
+                    linkFront(PROTECTED, node);
+                    if (listSize[PROTECTED] > protectedCapacity) {
+                        int demoted = prev[listHead[PROTECTED]];
+                        unlink(demoted);
+                        linkFront(PROBATION, demoted);
+                    }
+                }
+                break;
+            case LFU:
+                if (l == MAX_FREQUENCY) {
+                    moveToFront(node);
+                } else {
+                    unlink(node);
+                    linkFront(l + 1, node);
+                    if (l == minFrequency && listHead[l] == NIL) {
+                        minFrequency = l + 1;
+                    }
+                }
+                break;
+        }
+    }
+
+    private int victim() {
+        switch (policy) {
+            case SEGMENTED_LRU:
+                return prev[listHead[listHead[PROBATION] != NIL ? PROBATION : PROTECTED]];
+            case LFU:
+                // remove() can empty the minFrequency list, so look for the next non-empty one
+                while (listHead[minFrequency] == NIL) {
+                    minFrequency++;
+                }
+                return prev[listHead[minFrequency]];
+            default:
+                return prev[listHead[0]];
+        }
+    }
+
+    private int firstNonEmptyList() {
+        int l = 0;
+        while (listHead[l] == NIL) {
+            l++;
+        }
+        return l;
+    }
+
+    private void removeNode(int node) {
+        unlink(node);
+        tableRemove(keys[node]);
+        next[node] = freeHead;
+        freeHead = node;
+        size--;
+    }
+
+    // ---------------------------------------------------------------- circular lists
+
+    private void linkFront(int l, int node) {
+        int head = listHead[l];
+        if (head == NIL) {
+            next[node] = prev[node] = node;
+        } else {
+            int tail = prev[head];
+            next[node] = head;
+            prev[node] = tail;
+            next[tail] = node;
+            prev[head] = node;
+        }
+        listHead[l] = node;
+        list[node] = l;
+        listSize[l]++;
+    }
+
+    private void unlink(int node) {
+        int l = list[node];
+        if (next[node] == node) {
+            listHead[l] = NIL;
+        } else {
+            next[prev[node]] = next[node];
+            prev[next[node]] = prev[node];
+            if (listHead[l] == node) {
+                listHead[l] = next[node];
+            }
+        }
+        listSize[l]--;
+    }
+
+    private void moveToFront(int node) {
+        int l = list[node];
+        int head = listHead[l];
+        if (node == head) {
+            return;
+        }
+        if (node == prev[head]) {
+            listHead[l] = node;     // the tail: rotate the circle by one
+            return;
+        }
+        unlink(node);
+        linkFront(l, node);
+    }
+
+    // ---------------------------------------------------------------- hash index
+
+    // Fibonacci hashing: the top bits of key * 2^32 / golden ratio
+    private int home(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private int findNode(int key) {
+        for (int slot = home(key); ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return NIL;
+            }
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private void tableInsert(int key, int node) {
+        int slot = home(key);
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = node + 1;
+    }
+
+    // Removes the key and shifts back the entries behind it that belong before the hole
+    private void tableRemove(int key) {
+        int hole = home(key);
+        while (keys[table[hole] - 1] != key) {
+            hole = (hole + 1) & mask;
+        }
+        for (int slot = (hole + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int home = home(keys[table[slot] - 1]);
+            // Move the entry if its home is not in the cyclic range (hole, slot]
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                table[hole] = table[slot];
+                hole = slot;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    // Keys from most to least recently used (LRU); probation then protected (SEGMENTED_LRU);
+    // lowest to highest use count (LFU)
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int l = 0; l < listHead.length; l++) {
+            int head = listHead[l];
+            if (head == NIL) {
+                continue;
+            }
+            int node = head;
+            do {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(keys[node]).append("=").append(values[node]);
+                node = next[node];
+            } while (node != head);
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        LinkedCache cache = new LinkedCache(3, EvictionPolicy.LRU,
+                (key, value) -> System.out.println("Evicted " + key + "=" + value));
+        cache.put(1, 100);
+        cache.put(2, 200);
+        cache.put(3, 300);
+        System.out.println("Cache: " + cache);
+        System.out.println("get(1) = " + cache.get(1, -1));
+        cache.put(4, 400);     // 2 is the least recently used now
+        System.out.println("Cache: " + cache);
+        System.out.println("get(2) = " + cache.get(2, -1));
+        System.out.println("Hits " + cache.getHitCount() + ", misses " + cache.getMissCount()
+                + ", evictions " + cache.getEvictionCount());
+
+        // In front of a slow lookup: 70% of the requests go to 1000 hot keys, 30% are a scan
+        // over keys that are used only once. The cache has room for 1000 entries.
+        for (EvictionPolicy policy : EvictionPolicy.values()) {
+            LinkedCache c = new LinkedCache(1000, policy, null);
+            java.util.Random random = new java.util.Random(42);
+            int scanKey = 1_000_000;
+            for (int i = 0; i < 1_000_000; i++) {
+                int key = i % 10 < 7 ? random.nextInt(1000) : scanKey++;
+                c.getOrLoad(key, k -> k * 2);
+            }
+            System.out.printf("%-13s hit rate %.3f, evictions %d%n", policy, c.hitRate(), c.getEvictionCount());
+        }
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Cache: [3=300, 2=200, 1=100]
+get(1) = 100
+Evicted 2=200
+Cache: [4=400, 1=100, 3=300]
+get(2) = -1
+Hits 1, misses 1, evictions 1
+LRU           hit rate 0.423, evictions 576396
+SEGMENTED_LRU hit rate 0.599, evictions 399829
+LFU           hit rate 0.696, evictions 303305
+
+*/
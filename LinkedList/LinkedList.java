@@ -53,12 +53,27 @@ Operations that can be performed on a linked list include:
     7. Traversal
     8. Searching for an element
 
+  This class keeps a tail pointer and a size counter next to head:
+    - addFirst / addLast / removeFirst / getFirst / getLast / size are O(1).
+      Without tail, insertion at the end walks the whole list, so building a list of n elements
+      costs O(n^2); with tail it is O(n).
+    - removeLast and the positional operations (add(index), remove(index), get(index)) still walk
+      from head: a singly linked list has no pointer to the previous node.
+    - addAll(int[]) appends a whole array through the tail pointer.
+    - iterator() returns a PrimitiveIterator.OfInt, so traversal never boxes the ints.
+  Removing from an empty list throws NoSuchElementException, like java.util.LinkedList.
+
 */
 
 
 package LinkedList;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
 public class LinkedList {
-    Node head;
+    Node head, tail;
+    int size;
 
     static class Node {
         int data;
@@ -70,148 +85,255 @@ public class LinkedList {
         }
     }
 
-    public static void main(String[] args) {
-
+    public void addFirst(int value) {
+        Node newNode = new Node(value);
+        newNode.next = head;
+        head = newNode;
+        if (tail == null) {
+            tail = newNode;
+        }
+        size++;
+    }
 
-        // conversion of array to linked list
-        int[] arr = {10, 20, 30, 40, 50};
-        LinkedList arrayList = new LinkedList();  
-        Node current = null;
-        for (int value : arr) {
-            Node newNode = new Node(value);
-            if (arrayList.head == null) {
-                arrayList.head = newNode;
-                current = arrayList.head;
-            } else {
-                current.next = newNode;
-                current = newNode;
-            }
+    public void addLast(int value) {
+        Node newNode = new Node(value);
+        if (tail == null) {
+            head = tail = newNode;
+        } else {
+            tail.next = newNode;
+            tail = newNode;
         }
+        size++;
+    }
 
-        // Add nodes to the LinkedList
-        
-        LinkedList list = new LinkedList();
-        list.head = new Node(1);
-        list.head.next = new Node(2);
-        list.head.next.next = new Node(3);
+    // Appends every value of the array, in order
+    public void addAll(int[] values) {
+        for (int value : values) {
+            addLast(value);
+        }
+    }
 
+    // Inserts the value so that it ends up at position index (0 = first)
+    public void add(int index, int value) {
+        checkPosition(index, size);
+        if (index == 0) {
+            addFirst(value);
+        } else if (index == size) {
+            addLast(value);
+        } else {
+            Node prev = nodeAt(index - 1);
+            Node newNode = new Node(value);
+            newNode.next = prev.next;
+            prev.next = newNode;
+            size++;
+        }
+    }
 
-        // Print the LinkedList
-        Node node = list.head;
-        while (node != null) {
-            System.out.print(node.data + " ");
-            node = node.next;
+    public int removeFirst() {
+        if (head == null) {
+            throw new NoSuchElementException("List is empty");
+        }
+        int value = head.data;
+        head = head.next;
+        if (head == null) {
+            tail = null;
         }
+        size--;
+        return value;
+    }
 
-        // Insert a new node at the end ---  Find the last Position so we haave to traverse the whole linked list
-        Node newNode = new Node(4);
-        Node last = list.head;
-        while (last.next != null) {
-            last = last.next;
+    // O(n): we have to find the node before the tail
+    public int removeLast() {
+        if (head == null) {
+            throw new NoSuchElementException("List is empty");
+        }
+        if (head == tail) {
+            return removeFirst();
         }
-        last.next = newNode;
+        Node prev = nodeAt(size - 2);
+        int value = tail.data;
+        prev.next = null;
+        tail = prev;
+        size--;
+        return value;
+    }
 
-        // Print after insertion at the end
-        System.out.println("\nAfter insertion at the end:");
-        node = list.head;
-        while (node != null) {
-            System.out.print(node.data + " ");
-            node = node.next;
+    public int remove(int index) {
+        checkPosition(index, size - 1);
+        if (index == 0) {
+            return removeFirst();
+        }
+        Node prev = nodeAt(index - 1);
+        Node removed = prev.next;
+        prev.next = removed.next;
+        if (removed == tail) {
+            tail = prev;
         }
+        size--;
+        return removed.data;
+    }
 
-        // Insertion at the beginning
-        Node begNode = new Node(0);
-        begNode.next = list.head;
-        list.head = begNode;
-
-        // Print after insertion at the beginning
-        System.out.println("\nAfter insertion at the beginning:");  
-        node = list.head;
-        while (node != null) {  
-            System.out.print(node.data + " ");
-            node = node.next;
+    public int getFirst() {
+        if (head == null) {
+            throw new NoSuchElementException("List is empty");
         }
+        return head.data;
+    }
 
-        // Insertion at a specific position (after 2nd node)  --- insertion at kth position so we have to traverese to kth position.
-        Node specNode = new Node(1);
-        Node CurrNode = list.head;
-        for (int i = 0; i < 2; i++) {
-            CurrNode = CurrNode.next;
+    public int getLast() {
+        if (tail == null) {
+            throw new NoSuchElementException("List is empty");
         }
-        specNode.next = CurrNode.next;
-        CurrNode.next = specNode;
+        return tail.data;
+    }
 
-        // Print after insertion at a specific position
-        System.out.println("\nAfter insertion at a specific position:");
-        node = list.head;
-        while (node != null) {
-            System.out.print(node.data + " ");
-            node = node.next;
+    public int get(int index) {
+        checkPosition(index, size - 1);
+        return nodeAt(index).data;
+    }
+
+    public boolean contains(int value) {
+        for (Node node = head; node != null; node = node.next) {
+            if (node.data == value) {
+                return true;
+            }
         }
+        return false;
+    }
 
-        // Deletion from the beginning
-        list.head = list.head.next;
-        System.out.println("\nAfter deletion from the beginning:");
-        node = list.head; 
-        while (node != null) {
-            System.out.print(node.data + " ");
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = tail = null;
+        size = 0;
+    }
+
+    // Front to back, without boxing
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private Node node = head;
+
+            public boolean hasNext() {
+                return node != null;
+            }
+
+            public int nextInt() {
+                if (node == null) {
+                    throw new NoSuchElementException();
+                }
+                int value = node.data;
+                node = node.next;
+                return value;
+            }
+        };
+    }
+
+    private Node nodeAt(int index) {
+        Node node = head;
+        for (int i = 0; i < index; i++) {
             node = node.next;
         }
+        return node;
+    }
 
-        // Deletion from the end
-        Node temp = list.head;
-        while(temp.next.next != null) {
-            temp = temp.next;
-        }
-        temp.next = null;
-        System.out.println("\nAfter deletion from the end:");
-        node = list.head;
-        while (node != null) {
-            System.out.print(node.data + " ");
-            node = node.next;
+    private void checkPosition(int index, int max) {
+        if (index < 0 || index > max) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside list of size " + size);
         }
+    }
 
-        // Deletion from a specific position (2nd position)
-        Node temp2 = list.head;
-        for (int i = 0; i < 1; i++) {
-            temp2 = temp2.next;
-        }
-        temp2.next = temp2.next.next;
-        System.out.println("\nAfter deletion from a specific position:");
-        node = list.head;
-        while (node != null) {
-            System.out.print(node.data + " ");
-            node = node.next;
+    // Values separated by spaces, the way this file has always printed lists
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Node node = head; node != null; node = node.next) {
+            sb.append(node.data).append(" ");
         }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
 
-        // Forward Traversal
-        System.out.println("\nForward Traversal:");
-        node = list.head;
-        while (node != null) {
-            System.out.print(node.data + " ");
-            node = node.next; 
+        // conversion of array to linked list
+        int[] arr = {10, 20, 30, 40, 50};
+        LinkedList arrayList = new LinkedList();
+        arrayList.addAll(arr);
+        System.out.println("Array as linked list: " + arrayList);
 
+        // Add nodes to the LinkedList
+        LinkedList list = new LinkedList();
+        list.addLast(1);
+        list.addLast(2);
+        list.addLast(3);
+
+        // Print the LinkedList
+        System.out.println(list);
+
+        // Insert a new node at the end --- O(1) with the tail pointer, no traversal needed
+        list.addLast(4);
+        System.out.println("After insertion at the end:");
+        System.out.println(list);
+
+        // Insertion at the beginning
+        list.addFirst(0);
+        System.out.println("After insertion at the beginning:");
+        System.out.println(list);
+
+        // Insertion at a specific position (after 2nd node) --- we still have to traverse to the kth position
+        list.add(3, 1);
+        System.out.println("After insertion at a specific position:");
+        System.out.println(list);
+
+        // Deletion from the beginning
+        list.removeFirst();
+        System.out.println("After deletion from the beginning:");
+        System.out.println(list);
+
+        // Deletion from the end --- traverses to the node before the tail
+        list.removeLast();
+        System.out.println("After deletion from the end:");
+        System.out.println(list);
+
+        // Deletion from a specific position (2nd position)
+        list.remove(2);
+        System.out.println("After deletion from a specific position:");
+        System.out.println(list);
+
+        // Forward Traversal with the primitive iterator
+        System.out.println("Forward Traversal:");
+        PrimitiveIterator.OfInt it = list.iterator();
+        while (it.hasNext()) {
+            System.out.print(it.nextInt() + " ");
         }
+        System.out.println();
 
         // Backward Traversal is not possible in singly linked list as we dont have any pointer to previous node.
 
         // Searching for an element (e.g., 2)
         int searchValue = 2;
-        node = list.head;
-        boolean found = false;
-        while (node != null) {
-            if (node.data == searchValue) {
-                found = true;
-                break;
-            }
-            node = node.next;
-        }
-        if (found) {
-            System.out.println("\nElement " + searchValue + " found in the list.");
+        if (list.contains(searchValue)) {
+            System.out.println("Element " + searchValue + " found in the list.");
         } else {
-            System.out.println("\nElement " + searchValue + " not found in the list.");
+            System.out.println("Element " + searchValue + " not found in the list.");
         }
+        System.out.println("Size: " + list.size() + ", first: " + list.getFirst() + ", last: " + list.getLast());
 
+        // Building a list of one million elements is linear now
+        LinkedList big = new LinkedList();
+        long start = System.nanoTime();
+        for (int i = 0; i < 1_000_000; i++) {
+            big.addLast(i);
+        }
+        long sum = 0;
+        for (PrimitiveIterator.OfInt i = big.iterator(); i.hasNext(); ) {
+            sum += i.nextInt();
+        }
+        System.out.println("Built " + big.size() + " nodes in " + (System.nanoTime() - start) / 1_000_000 + " ms, sum = " + sum);
     }
 
 }
@@ -222,15 +344,25 @@ public class LinkedList {
 /*
 
 Sample Output:
+Array as linked list: 10 20 30 40 50 
+1 2 3 
+After insertion at the end:
+1 2 3 4 
+After insertion at the beginning:
+0 1 2 3 4 
+After insertion at a specific position:
+0 1 2 1 3 4 
+After deletion from the beginning:
+1 2 1 3 4 
+After deletion from the end:
+1 2 1 3 
+After deletion from a specific position:
+1 2 3 
+Forward Traversal:
 1 2 3 
-After insertion at the end: 1 2 3 4
-After insertion at the beginning: 0 1 2 3 4
-After insertion at a specific position: 0 1 1 2 3 4
-After deletion from the beginning: 1 1 2 3 4
-After deletion from the end: 1 1 2 3
-After deletion from a specific position: 1 2 3
-Forward Traversal: 1 2 3
 Element 2 found in the list.
+Size: 3, first: 1, last: 3
+Built 1000000 nodes in 57 ms, sum = 499999500000
 
 
 */
@@ -0,0 +1,385 @@
+/*
+
+PooledLinkedList: a singly linked list of ints without Node objects (struct-of-arrays layout).
+
+Why:
+    - Every LinkedList.Node is its own heap object: a 12-16 byte header, the int and a reference,
+      about 24 bytes for 4 bytes of data. The nodes end up wherever the allocator put them, so a
+      traversal jumps around the heap and misses the cache, and the GC has to scan every node.
+    - Here node i is just a slot in two parallel arrays:
+          data[i] = value of node i
+          next[i] = index of the next node, or NIL (-1) at the end
+      A "pointer" is an array index. 8 bytes per node, and the GC only sees two int[] arrays.
+
+Free-list:
+    - Removed slots are not lost: they are chained together through next[] starting at freeHead.
+    - A new node takes the first free slot (O(1)); only when there is none do the arrays double.
+
+        data: [ 10 | 20 | -- | 40 | -- ]     head = 0, tail = 3
+        next: [  1 |  3 |  4 | NIL| NIL]     freeHead = 2 -> 4
+
+Compaction (defragmentation):
+    - After many inserts at the front and removals in the middle, list order and slot order no
+      longer match, and a traversal jumps around the arrays again.
+    - compact() rewrites the nodes into traversal order: the k-th node of the list moves to slot k,
+      so next[k] = k + 1 and a traversal is a straight sequential scan. Free slots all end up after
+      the last node, and the arrays are trimmed to fit (never below the initial capacity). O(n).
+
+Time complexity is the same as LinkedList: addFirst, addLast, removeFirst, getFirst, getLast and
+size are O(1); removeLast and positional operations are O(n).
+Removing from an empty list throws NoSuchElementException.
+
+*/
+
+package LinkedList;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+public class PooledLinkedList {
+
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] data;
+    private int[] next;
+    private int head = NIL, tail = NIL;
+    private int freeHead;       // first free slot, chained through next[]
+    private int size;
+    private final int initialCapacity;
+
+    public PooledLinkedList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PooledLinkedList(int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be at least 1: " + initialCapacity);
+        }
+        this.initialCapacity = initialCapacity;
+        data = new int[initialCapacity];
+        next = new int[initialCapacity];
+        chainFree(0, initialCapacity);
+    }
+
+    public void addFirst(int value) {
+        int node = allocate(value);
+        next[node] = head;
+        head = node;
+        if (tail == NIL) {
+            tail = node;
+        }
+    }
+
+    public void addLast(int value) {
+        int node = allocate(value);
+        next[node] = NIL;
+        if (tail == NIL) {
+            head = tail = node;
+        } else {
+            next[tail] = node;
+            tail = node;
+        }
+    }
+
+    public void addAll(int[] values) {
+        for (int value : values) {
+            addLast(value);
+        }
+    }
+
+    // Inserts the value so that it ends up at position index (0 = first)
+    public void add(int index, int value) {
+        checkPosition(index, size);
+        if (index == 0) {
+            addFirst(value);
+        } else if (index == size) {
+            addLast(value);
+        } else {
+            int prev = nodeAt(index - 1);
+            int node = allocate(value);
+            next[node] = next[prev];
+            next[prev] = node;
+        }
+    }
+
+    public int removeFirst() {
+        if (head == NIL) {
+            throw new NoSuchElementException("List is empty");
+        }
+        int node = head;
+        head = next[node];
+        if (head == NIL) {
+            tail = NIL;
+        }
+        return release(node);
+    }
+
+    // O(n): we have to find the node before the tail
+    public int removeLast() {
+        if (head == NIL) {
+            throw new NoSuchElementException("List is empty");
+        }
+        if (head == tail) {
+            return removeFirst();
+        }
+        int prev = nodeAt(size - 2);
+        int node = tail;
+        next[prev] = NIL;
+        tail = prev;
+        return release(node);
+    }
+
+    public int remove(int index) {
+        checkPosition(index, size - 1);
+        if (index == 0) {
+            return removeFirst();
+        }
+        int prev = nodeAt(index - 1);
+        int node = next[prev];
+        next[prev] = next[node];
+        if (node == tail) {
+            tail = prev;
+        }
+        return release(node);
+    }
+
+    // Removes the first node with this value. Returns false if there is none.
+    public boolean removeValue(int value) {
+        int prev = NIL;
+        for (int node = head; node != NIL; prev = node, node = next[node]) {
+            if (data[node] == value) {
+                if (prev == NIL) {
+                    removeFirst();
+                } else {
+                    next[prev] = next[node];
+                    if (node == tail) {
+                        tail = prev;
+                    }
+                    release(node);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getFirst() {
+        if (head == NIL) {
+            throw new NoSuchElementException("List is empty");
+        }
+        return data[head];
+    }
+
+    public int getLast() {
+        if (tail == NIL) {
+            throw new NoSuchElementException("List is empty");
+        }
+        return data[tail];
+    }
+
+    public int get(int index) {
+        checkPosition(index, size - 1);
+        return data[nodeAt(index)];
+    }
+
+    public boolean contains(int value) {
+        for (int node = head; node != NIL; node = next[node]) {
+            if (data[node] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return data.length;
+    }
+
+    public void clear() {
+        head = tail = NIL;
+        size = 0;
+        chainFree(0, data.length);
+    }
+
+    // Rewrites the list in traversal order (node k in slot k) and trims the arrays. O(n).
+    public void compact() {
+        int capacity = Math.max(size, initialCapacity);
+        int[] newData = new int[capacity];
+        int[] newNext = new int[capacity];
+        int k = 0;
+        for (int node = head; node != NIL; node = next[node]) {
+            newData[k] = data[node];
+            newNext[k] = k + 1;
+            k++;
+        }
+        data = newData;
+        next = newNext;
+        if (size == 0) {
+            head = tail = NIL;
+        } else {
+            head = 0;
+            tail = size - 1;
+            next[tail] = NIL;
+        }
+        chainFree(size, capacity);
+    }
+
+    // Front to back, without boxing
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int node = head;
+
+            public boolean hasNext() {
+                return node != NIL;
+            }
+
+            public int nextInt() {
+                if (node == NIL) {
+                    throw new NoSuchElementException();
+                }
+                int value = data[node];
+                node = next[node];
+                return value;
+            }
+        };
+    }
+
+    // Takes a slot from the free-list (doubling the arrays if it is empty) and stores the value
+    private int allocate(int value) {
+        if (freeHead == NIL) {
+            int oldCapacity = data.length;
+            int newCapacity = oldCapacity * 2;
+            if (newCapacity < 0) {
+                throw new OutOfMemoryError("PooledLinkedList too large: " + oldCapacity);
+            }
+            data = Arrays.copyOf(data, newCapacity);
+            next = Arrays.copyOf(next, newCapacity);
+            chainFree(oldCapacity, newCapacity);
+        }
+        int node = freeHead;
+        freeHead = next[node];
+        data[node] = value;
+        size++;
+        return node;
+    }
+
+    // Puts the slot back on the free-list and returns its value
+    private int release(int node) {
+        int value = data[node];
+        next[node] = freeHead;
+        freeHead = node;
+        size--;
+        return value;
+    }
+
+    // Chains slots from..to-1 into the free-list, in increasing order
+    private void chainFree(int from, int to) {
+        for (int i = from; i < to - 1; i++) {
+            next[i] = i + 1;
+        }
+        if (from < to) {
+            next[to - 1] = NIL;
+            freeHead = from;
+        } else {
+            freeHead = NIL;
+        }
+    }
+
+    private int nodeAt(int index) {
+        int node = head;
+        for (int i = 0; i < index; i++) {
+            node = next[node];
+        }
+        return node;
+    }
+
+    private void checkPosition(int index, int max) {
+        if (index < 0 || index > max) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside list of size " + size);
+        }
+    }
+
+    // Values separated by spaces, like LinkedList
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int node = head; node != NIL; node = next[node]) {
+            sb.append(data[node]).append(" ");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        PooledLinkedList list = new PooledLinkedList(4);
+        list.addAll(new int[] {10, 20, 30, 40});
+        System.out.println("List: " + list + "(capacity " + list.capacity() + ")");
+
+        list.remove(2);
+        list.removeFirst();
+        System.out.println("After removing 30 and 10: " + list + "(capacity " + list.capacity() + ")");
+
+        // The two new nodes reuse the freed slots, the arrays do not grow
+        list.addFirst(5);
+        list.addLast(50);
+        System.out.println("After adding 5 and 50: " + list + "(capacity " + list.capacity() + ")");
+        System.out.println("Contains 40? " + list.contains(40) + ", element at 1: " + list.get(1));
+
+        // Build a scattered list: alternate front/back inserts, then remove every other element
+        int n = 1_000_000;
+        PooledLinkedList big = new PooledLinkedList();
+        for (int i = 0; i < n; i++) {
+            if ((i & 1) == 0) {
+                big.addFirst(i);
+            } else {
+                big.addLast(i);
+            }
+        }
+        for (int i = 0; i < n / 2; i++) {
+            big.addLast(big.removeFirst());
+            big.removeFirst();
+        }
+        long start = System.nanoTime();
+        long before = sum(big);
+        long scattered = System.nanoTime() - start;
+
+        big.compact();
+        start = System.nanoTime();
+        long after = sum(big);
+        long compacted = System.nanoTime() - start;
+
+        System.out.println("Size " + big.size() + ", capacity after compact " + big.capacity());
+        System.out.println("Sum before compact: " + before + " (" + scattered / 1_000_000 + " ms)");
+        System.out.println("Sum after compact:  " + after + " (" + compacted / 1_000_000 + " ms)");
+    }
+
+    private static long sum(PooledLinkedList list) {
+        long sum = 0;
+        for (PrimitiveIterator.OfInt it = list.iterator(); it.hasNext(); ) {
+            sum += it.nextInt();
+        }
+        return sum;
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+List: 10 20 30 40 (capacity 4)
+After removing 30 and 10: 20 40 (capacity 4)
+After adding 5 and 50: 5 20 40 50 (capacity 4)
+Contains 40? true, element at 1: 20
+Size 500000, capacity after compact 500000
+Sum before compact: 249999750000 (16 ms)
+Sum after compact:  249999750000 (1 ms)
+
+*/
@@ -0,0 +1,342 @@
+/*
+
+SkipList: a sorted set of ints with O(log n) search, insert and delete (expected).
+
+Idea:
+    - A sorted linked list needs a linear walk to find a value (see "Searching for an element" in
+      LinkedList.java). A skip list adds "express lanes" on top of it:
+
+        level 2:  head --------------------------> 30 ------------------------> null
+        level 1:  head ----------> 10 ----------> 30 ----------> 50 ---------> null
+        level 0:  head -> 5 -> 10 -> 20 -> 30 -> 40 -> 50 -> 60 -> null
+
+    - Every node is on level 0. When a node is inserted, its level is random: with probability
+      1/4 it also goes on level 1, with probability 1/16 on level 2, and so on.
+    - Search starts at the top level of head, moves right while the next key is smaller than the
+      target, and drops one level when it would overshoot. About log4(n) levels, and a constant
+      expected number of steps per level => O(log n).
+    - Each node only has a next[] array of its own level (most nodes have 1 entry), so the
+      express lanes cost 1 / (1 - 1/4) = 1.33 pointers per node on average.
+
+Indexable mode (new SkipList(true)):
+    - Every link also stores its span: how many level-0 steps it jumps over.
+    - get(i) walks like a search, but counts spans instead of comparing keys: O(log n).
+    - rank(key) adds up the spans on the way to the key: O(log n).
+    - insert and delete fix the spans of the links they pass, still O(log n).
+    - Without indexable mode no span arrays are allocated.
+
+Operations:
+    insert / delete / contains           O(log n)
+    floor / ceiling                      O(log n), OptionalInt.empty() when there is none
+    forEachInRange / rangeIterator       O(log n + k) for k values in [from, to)
+    get / rank (indexable mode only)     O(log n)
+
+Not thread-safe. ConcurrentSkipList is a lock-free variant for several threads.
+
+*/
+
+package LinkedList;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+public class SkipList {
+
+    private static final int MAX_LEVEL = 32;
+
+    static final class Node {
+        final int key;
+        final Node[] next;
+        final int[] span;   // null unless indexable
+
+        Node(int key, int level, boolean indexable) {
+            this.key = key;
+            this.next = new Node[level];
+            this.span = indexable ? new int[level] : null;
+        }
+    }
+
+    private final boolean indexable;
+    private final Node head;
+    private int level = 1;      // levels in use
+    private int size;
+    private long seed;
+
+    // Scratch arrays for insert and delete: the last node before the key on each level
+    private final Node[] update = new Node[MAX_LEVEL];
+    private final int[] rankAt = new int[MAX_LEVEL];
+
+    public SkipList() {
+        this(false);
+    }
+
+    public SkipList(boolean indexable) {
+        this.indexable = indexable;
+        this.head = new Node(0, MAX_LEVEL, indexable);
+        this.seed = System.nanoTime() | 1;
+    }
+
+    public boolean contains(int key) {
+        Node x = findLast(key);
+        Node next = x.next[0];
+        return next != null && next.key == key;
+    }
+
+    // Adds the key. Returns false if it was already in the list.
+    public boolean insert(int key) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rankAt[i] = i == level - 1 ? 0 : rankAt[i + 1];
+            while (x.next[i] != null && x.next[i].key < key) {
+                if (indexable) {
+                    rankAt[i] += x.span[i];
+                }
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        if (x.next[0] != null && x.next[0].key == key) {
+            return false;
+        }
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                update[i] = head;
+                rankAt[i] = 0;
+                if (indexable) {
+                    head.span[i] = size;
+                }
+            }
+            level = newLevel;
+        }
+        Node node = new Node(key, newLevel, indexable);
+        for (int i = 0; i < newLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            if (indexable) {
+                // update[i] was rankAt[i], the new node is at rankAt[0] + 1
+                node.span[i] = update[i].span[i] - (rankAt[0] - rankAt[i]);
+                update[i].span[i] = rankAt[0] - rankAt[i] + 1;
+            }
+        }
+        if (indexable) {
+            // Higher links jump over the new node too
+            for (int i = newLevel; i < level; i++) {
+                update[i].span[i]++;
+            }
+        }
+        size++;
+        return true;
+    }
+
+    // Removes the key. Returns false if it was not in the list.
+    public boolean delete(int key) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].key < key) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node node = x.next[0];
+        if (node == null || node.key != key) {
+            return false;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                if (indexable) {
+                    update[i].span[i] += node.span[i] - 1;
+                }
+                update[i].next[i] = node.next[i];
+            } else if (indexable) {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return true;
+    }
+
+    // Largest key <= the given key
+    public OptionalInt floor(int key) {
+        Node x = findLast(key);
+        Node next = x.next[0];
+        if (next != null && next.key == key) {
+            return OptionalInt.of(key);
+        }
+        return x == head ? OptionalInt.empty() : OptionalInt.of(x.key);
+    }
+
+    // Smallest key >= the given key
+    public OptionalInt ceiling(int key) {
+        Node next = findLast(key).next[0];
+        return next == null ? OptionalInt.empty() : OptionalInt.of(next.key);
+    }
+
+    // Calls action for every key in [from, to), in ascending order
+    public void forEachInRange(int from, int to, IntConsumer action) {
+        for (Node x = findLast(from).next[0]; x != null && x.key < to; x = x.next[0]) {
+            action.accept(x.key);
+        }
+    }
+
+    // Keys in [from, to), in ascending order
+    public PrimitiveIterator.OfInt rangeIterator(int from, int to) {
+        Node first = findLast(from).next[0];
+        return new PrimitiveIterator.OfInt() {
+            private Node node = first;
+
+            public boolean hasNext() {
+                return node != null && node.key < to;
+            }
+
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int key = node.key;
+                node = node.next[0];
+                return key;
+            }
+        };
+    }
+
+    // Key at position index (0 = smallest). Indexable mode only.
+    public int get(int index) {
+        checkIndexable();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside list of size " + size);
+        }
+        int target = index + 1;     // rank of the wanted node
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= target) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == target) {
+                return x.key;
+            }
+        }
+        throw new IllegalStateException("Spans are inconsistent");
+    }
+
+    // Position of the key (0 = smallest), or -1 if it is not in the list. Indexable mode only.
+    public int rank(int key) {
+        checkIndexable();
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].key <= key) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && x.key == key) {
+                return traversed - 1;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Last node with a key smaller than the given key (head if there is none)
+    private Node findLast(int key) {
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && x.next[i].key < key) {
+                x = x.next[i];
+            }
+        }
+        return x;
+    }
+
+    // Level 1 with probability 3/4, level 2 with 3/16, ... (p = 1/4 per extra level)
+    private int randomLevel() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        int lvl = 1 + Long.numberOfTrailingZeros(seed | (1L << 62)) / 2;
+        return Math.min(lvl, MAX_LEVEL);
+    }
+
+    private void checkIndexable() {
+        if (!indexable) {
+            throw new UnsupportedOperationException("Positional access needs new SkipList(true)");
+        }
+    }
+
+    // Keys in ascending order, separated by spaces like LinkedList
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Node x = head.next[0]; x != null; x = x.next[0]) {
+            sb.append(x.key).append(" ");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        SkipList list = new SkipList(true);
+        for (int key : new int[] {30, 10, 50, 20, 60, 40, 5}) {
+            list.insert(key);
+        }
+        System.out.println("Skip list: " + list);
+        System.out.println("Contains 40? " + list.contains(40) + ", contains 45? " + list.contains(45));
+        System.out.println("Insert 20 again: " + list.insert(20));
+        System.out.println("Floor of 45: " + list.floor(45).getAsInt() + ", ceiling of 45: " + list.ceiling(45).getAsInt());
+        System.out.println("Ceiling of 61 present? " + list.ceiling(61).isPresent());
+
+        System.out.print("Range [10, 40): ");
+        list.forEachInRange(10, 40, key -> System.out.print(key + " "));
+        System.out.println();
+
+        System.out.println("Element at position 3: " + list.get(3) + ", rank of 50: " + list.rank(50));
+        list.delete(10);
+        System.out.println("After deleting 10: " + list + "(position 3 is now " + list.get(3) + ")");
+
+        // One million keys: every search and positional lookup is O(log n)
+        SkipList big = new SkipList(true);
+        int n = 1_000_000;
+        for (int i = 0; i < n; i++) {
+            big.insert(i * 2);
+        }
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < n; i++) {
+            if (big.contains(i)) {
+                found++;
+            }
+        }
+        long searches = System.nanoTime() - start;
+        System.out.println("Found " + found + " of " + n + " keys in " + searches / 1_000_000 + " ms");
+        System.out.println("Key at position 654321: " + big.get(654_321) + ", rank of 1308642: " + big.rank(1_308_642));
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Skip list: 5 10 20 30 40 50 60 
+Contains 40? true, contains 45? false
+Insert 20 again: false
+Floor of 45: 40, ceiling of 45: 50
+Ceiling of 61 present? false
+Range [10, 40): 10 20 30 
+Element at position 3: 30, rank of 50: 5
+After deleting 10: 5 20 30 40 50 60 (position 3 is now 40)
+Found 500000 of 1000000 keys in 255 ms
+Key at position 654321: 1308642, rank of 1308642: 654321
+
+*/
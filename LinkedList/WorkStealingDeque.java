@@ -0,0 +1,223 @@
+/*
+
+    Implementation of a Work-Stealing Deque (Chase-Lev)
+
+    Let Discuss About The Work-Stealing Deque:
+    - It is a Deque (see Deque.java) where the two ends are used by different threads:
+        - The OWNER thread inserts and deletes at the rear (like a stack, newest task first).
+        - Any number of THIEF threads delete from the front (the oldest task) when they run out of work.
+    - This is the core of fork-join schedulers: every worker has its own deque, works on its own
+      rear end without any contention, and only idle workers touch the front of someone else's deque.
+    - Instead of linked Nodes it uses a circular array that doubles when it is full, so the owner's
+      push and pop are just an array write/read plus one index update.
+
+    How it stays correct without locks (Chase and Lev, "Dynamic Circular Work-Stealing Deque"):
+    - Two counters: front (called "top" in the paper) and rear ("bottom"). Elements are in [front, rear).
+    - Only the owner writes rear. Thieves move front forward with a CAS, so two thieves can never
+      take the same element.
+    - The only race between owner and thief is for the LAST element. The owner first decrements
+      rear, then (after a full fence) reads front; if they meet, the owner also uses a CAS on front,
+      so exactly one of them wins that element.
+
+Operations on Work-Stealing Deque:
+    1. Insertion at the rear   (owner)   pushRear    O(1) amortized
+    2. Deletion from the rear  (owner)   popRear     O(1)
+    3. Deletion from the front (thieves) stealFront  O(1)
+    4. Checking if the Deque is empty
+    5. Getting the size of the Deque
+
+    popRear and stealFront return EMPTY when there is nothing to take.
+
+*/
+
+
+
+package LinkedList;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class WorkStealingDeque {
+
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    private static final VarHandle FRONT;
+    private static final VarHandle REAR;
+    private static final VarHandle ARRAY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FRONT = lookup.findVarHandle(WorkStealingDeque.class, "front", long.class);
+            REAR = lookup.findVarHandle(WorkStealingDeque.class, "rear", long.class);
+            ARRAY = lookup.findVarHandle(WorkStealingDeque.class, "array", int[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long front;
+    private volatile long rear;
+    private volatile int[] array;
+
+    public WorkStealingDeque() {
+        this(64);
+    }
+
+    public WorkStealingDeque(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1;
+        array = new int[capacity];
+    }
+
+    // Owner thread only.
+    public void pushRear(int value) {
+        long r = (long) REAR.getOpaque(this);
+        long f = (long) FRONT.getAcquire(this);
+        int[] a = (int[]) ARRAY.getOpaque(this);
+        if (r - f > a.length - 1) {
+            a = grow(a, f, r);
+        }
+        a[(int) r & (a.length - 1)] = value;
+        REAR.setRelease(this, r + 1);   // publishes the element to thieves
+    }
+
+    // Owner thread only. Takes the newest element.
+    public int popRear() {
+        long r = (long) REAR.getOpaque(this) - 1;
+        int[] a = (int[]) ARRAY.getOpaque(this);
+        REAR.setVolatile(this, r);
+        VarHandle.fullFence();
+        long f = (long) FRONT.getVolatile(this);
+        if (f > r) {
+            // Deque was empty, undo the decrement
+            REAR.setOpaque(this, r + 1);
+            return EMPTY;
+        }
+        int value = a[(int) r & (a.length - 1)];
+        if (f == r) {
+            // Last element: race against thieves for it
+            boolean won = FRONT.compareAndSet(this, f, f + 1);
+            REAR.setOpaque(this, r + 1);
+            return won ? value : EMPTY;
+        }
+        return value;
+    }
+
+    // Any thread. Takes the oldest element, or returns EMPTY if there is none.
+    public int stealFront() {
+        while (true) {
+            long f = (long) FRONT.getAcquire(this);
+            VarHandle.fullFence();
+            long r = (long) REAR.getAcquire(this);
+            if (f >= r) {
+                return EMPTY;
+            }
+            int[] a = (int[]) ARRAY.getAcquire(this);
+            int value = a[(int) f & (a.length - 1)];
+            if (FRONT.compareAndSet(this, f, f + 1)) {
+                return value;
+            }
+            // Another thief or the owner took it first, try the next one
+            Thread.onSpinWait();
+        }
+    }
+
+    // Copies [front, rear) into an array twice as big. The old array stays valid for
+    // thieves that already read it, because the elements they may still take are unchanged.
+    private int[] grow(int[] old, long f, long r) {
+        int[] bigger = new int[old.length * 2];
+        for (long i = f; i < r; i++) {
+            bigger[(int) i & (bigger.length - 1)] = old[(int) i & (old.length - 1)];
+        }
+        ARRAY.setRelease(this, bigger);
+        return bigger;
+    }
+
+    // Snapshot, may be out of date while other threads are running.
+    public int size() {
+        long f = front;
+        long r = rear;
+        return (int) Math.max(0, r - f);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        WorkStealingDeque deque = new WorkStealingDeque(2);
+
+        // Owner pushes at the rear
+        for (int i = 1; i <= 5; i++) {
+            deque.pushRear(i * 10);
+        }
+        System.out.println("Size of Deque: " + deque.size());
+        System.out.println("Owner pops from rear: " + deque.popRear());
+        System.out.println("Thief steals from front: " + deque.stealFront());
+        System.out.println("Size of Deque: " + deque.size());
+
+        // Owner keeps pushing and popping tasks while 3 thieves steal from the front
+        final int tasks = 1_000_000;
+        WorkStealingDeque work = new WorkStealingDeque();
+        long[] stolen = new long[3];
+        AtomicBoolean done = new AtomicBoolean();
+        Thread[] thieves = new Thread[stolen.length];
+        for (int t = 0; t < thieves.length; t++) {
+            final int id = t;
+            thieves[t] = new Thread(() -> {
+                while (true) {
+                    int task = work.stealFront();
+                    if (task != EMPTY) {
+                        stolen[id] += task;
+                    } else if (done.get()) {
+                        return;
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+            thieves[t].start();
+        }
+
+        long ownSum = 0;
+        for (int i = 1; i <= tasks; i++) {
+            work.pushRear(i);
+            if (i % 2 == 0) {
+                int task = work.popRear();
+                if (task != EMPTY) {
+                    ownSum += task;
+                }
+            }
+        }
+        int task;
+        while ((task = work.popRear()) != EMPTY) {
+            ownSum += task;
+        }
+        done.set(true);
+        for (Thread thief : thieves) {
+            thief.join();
+        }
+        long total = ownSum;
+        for (long s : stolen) {
+            total += s;
+        }
+        System.out.println("Sum of all executed tasks: " + total);
+        System.out.println("Is Deque empty? " + work.isEmpty());
+    }
+}
+
+
+
+
+/*
+
+sample Output:
+Size of Deque: 5
+Owner pops from rear: 50
+Thief steals from front: 10
+Size of Deque: 3
+Sum of all executed tasks: 500000500000
+Is Deque empty? true
+
+*/
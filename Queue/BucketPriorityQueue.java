@@ -0,0 +1,209 @@
+/*
+
+Explaining Bucket Priority Queue:
+ - When priorities are small integers in a known range [0, maxPriority), we do not need a heap.
+   We keep one bucket (a small FIFO queue) per priority value:
+        enqueue(data, p) : append data to bucket p                          O(1)
+        dequeue()        : take the first element of the lowest non-empty bucket
+ - The only hard part is finding the lowest non-empty bucket quickly. We keep a bitmap
+   with one bit per bucket (bit set = bucket not empty), plus a summary bitmap with one bit
+   per 64-bit word of the first bitmap (bit set = that word is not zero):
+
+        summary   : 1 long  covers  64 words
+        words     : 1 long  covers  64 buckets
+        => 4096 priorities are found with two Long.numberOfTrailingZeros calls.
+
+ - In the common "monotone" case (the extracted minimum never decreases, like Dijkstra or
+   event simulation) we also remember the last minimum, so the search starts from there.
+ - Elements with the same priority come out in FIFO order, same as PriorityQueue.
+
+ Every bucket is a growable int[] ring (head index + count), so no Node objects are created
+ and a bucket's elements sit next to each other in memory.
+
+*/
+import java.util.Arrays;
+
+public class BucketPriorityQueue {
+
+    private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+    private final int maxPriority;
+    private final int[][] buckets;     // bucket contents, created on first use
+    private final int[] bucketHead;    // index of the first element in each bucket's ring
+    private final int[] bucketSize;
+    private final long[] words;        // bit p set => bucket p not empty
+    private final long[] summary;      // bit w set => words[w] != 0
+    private int size;
+    private int lastMin;               // lowest bucket that may be non-empty
+
+    public BucketPriorityQueue(int maxPriority) {
+        if (maxPriority < 1) {
+            throw new IllegalArgumentException("maxPriority must be at least 1: " + maxPriority);
+        }
+        this.maxPriority = maxPriority;
+        this.buckets = new int[maxPriority][];
+        this.bucketHead = new int[maxPriority];
+        this.bucketSize = new int[maxPriority];
+        this.words = new long[(maxPriority + 63) >>> 6];
+        this.summary = new long[(words.length + 63) >>> 6];
+    }
+
+    public void enqueue(int data, int priority) {
+        if (priority < 0 || priority >= maxPriority) {
+            throw new IllegalArgumentException("Priority " + priority + " is outside [0, " + maxPriority + ")");
+        }
+        int[] bucket = buckets[priority];
+        int count = bucketSize[priority];
+        if (bucket == null) {
+            bucket = buckets[priority] = new int[INITIAL_BUCKET_CAPACITY];
+        } else if (count == bucket.length) {
+            bucket = buckets[priority] = growBucket(bucket, bucketHead[priority], count);
+            bucketHead[priority] = 0;
+        }
+        bucket[(bucketHead[priority] + count) & (bucket.length - 1)] = data;
+        bucketSize[priority] = count + 1;
+        if (count == 0) {
+            setBit(priority);
+        }
+        if (priority < lastMin) {
+            lastMin = priority;   // not monotone, still correct
+        }
+        size++;
+    }
+
+    public int dequeue() {
+        if (size == 0) {
+            System.out.println("Priority Queue is empty. Cannot dequeue.");
+            return -1;
+        }
+        int p = lowestBucket();
+        int[] bucket = buckets[p];
+        int head = bucketHead[p];
+        int data = bucket[head];
+        bucketHead[p] = (head + 1) & (bucket.length - 1);
+        if (--bucketSize[p] == 0) {
+            bucketHead[p] = 0;
+            clearBit(p);
+        }
+        size--;
+        lastMin = p;
+        return data;
+    }
+
+    public int peek() {
+        if (size == 0) {
+            return -1;
+        }
+        int p = lowestBucket();
+        return buckets[p][bucketHead[p]];
+    }
+
+    public int peekPriority() {
+        return size == 0 ? -1 : lowestBucket();
+    }
+
+    // Finds the lowest non-empty bucket at or above lastMin. Only called when size > 0.
+    private int lowestBucket() {
+        int w = lastMin >>> 6;
+        long bits = words[w] & (-1L << (lastMin & 63));
+        if (bits != 0) {
+            return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        // Use the summary bitmap to jump over empty words
+        int start = w + 1;
+        for (int s = start >>> 6; s < summary.length; s++) {
+            long sbits = summary[s];
+            if (s == start >>> 6) {
+                sbits &= -1L << (start & 63);
+            }
+            if (sbits != 0) {
+                int word = (s << 6) + Long.numberOfTrailingZeros(sbits);
+                return (word << 6) + Long.numberOfTrailingZeros(words[word]);
+            }
+        }
+        throw new IllegalStateException("Bitmap out of sync with size " + size);
+    }
+
+    private void setBit(int p) {
+        int w = p >>> 6;
+        words[w] |= 1L << p;
+        summary[w >>> 6] |= 1L << w;
+    }
+
+    private void clearBit(int p) {
+        int w = p >>> 6;
+        words[w] &= ~(1L << p);
+        if (words[w] == 0) {
+            summary[w >>> 6] &= ~(1L << w);
+        }
+    }
+
+    // Doubles a full bucket ring, unwrapping it so the oldest element is at index 0
+    private static int[] growBucket(int[] bucket, int head, int count) {
+        int[] bigger = new int[bucket.length * 2];
+        int first = bucket.length - head;
+        System.arraycopy(bucket, head, bigger, 0, first);
+        System.arraycopy(bucket, 0, bigger, first, count - first);
+        return bigger;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        int printed = 0;
+        for (int p = 0; p < maxPriority && printed < size; p++) {
+            for (int i = 0; i < bucketSize[p]; i++) {
+                int[] bucket = buckets[p];
+                sb.append("(").append(bucket[(bucketHead[p] + i) & (bucket.length - 1)]).append(", ").append(p).append(")");
+                if (++printed < size) {
+                    sb.append(", ");
+                }
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        BucketPriorityQueue bucketQueue = new BucketPriorityQueue(4096);
+        bucketQueue.enqueue(10, 2);
+        bucketQueue.enqueue(20, 1);
+        bucketQueue.enqueue(30, 3);
+        bucketQueue.enqueue(40, 1);
+        System.out.println("Bucket Priority Queue after enqueuing elements: " + bucketQueue);
+        System.out.println("Dequeued element: " + bucketQueue.dequeue());
+        System.out.println("Peek element: " + bucketQueue.peek() + " with priority " + bucketQueue.peekPriority());
+
+        // Monotone workload: priorities never go below the last extracted minimum
+        int[] seen = new int[4096];
+        bucketQueue.enqueue(50, 4000);
+        while (!bucketQueue.isEmpty()) {
+            int p = bucketQueue.peekPriority();
+            bucketQueue.dequeue();
+            seen[p]++;
+            if (p + 700 < 4096) {
+                bucketQueue.enqueue(p, p + 700);
+            }
+        }
+        System.out.println("Priorities visited: " + Arrays.stream(seen).filter(c -> c > 0).count());
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Bucket Priority Queue after enqueuing elements: [(20, 1), (40, 1), (10, 2), (30, 3)]
+Dequeued element: 20
+Peek element: 40 with priority 1
+Priorities visited: 19
+
+*/
@@ -1,26 +1,141 @@
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.function.LongSupplier;
 
 public class CircularQueue {
+
+    // What enqueue/offer does when the circular queue is full
+    public enum OverflowPolicy {
+        REJECT,            // drop the new element, offer returns false
+        THROW,             // drop the new element and throw IllegalStateException
+        GROW,              // double the capacity, nothing is lost
+        OVERWRITE_OLDEST,  // drop the front element to make room (telemetry ring buffer)
+        BLOCK              // enqueue, put and enqueueAll wait until another thread dequeues
+    }
+
     private int[] queue;
     private int front;
     private int rear;
     private int capacity;
+    private final OverflowPolicy policy;
+
+    // Counters, so queues can be sized from real numbers instead of guesses
+    private long droppedCount;      // new elements rejected (REJECT, THROW, BLOCK offer or interrupted wait)
+    private long overwrittenCount;  // old elements thrown away by OVERWRITE_OLDEST
+    private long resizeCount;       // number of times GROW doubled the array
+    private long blockedCount;      // number of times BLOCK had to wait
+
+    // Only a BLOCK queue is shared between a producer and a consumer thread, so only a BLOCK queue
+    // has a lock. With every other policy the queue is single-threaded and no method locks.
+    // For a lock-free hand-off between threads use SpscCircularQueue or MpmcCircularQueue.
+    private final ReentrantLock lock;
+    private final Condition notFull;
 
     public CircularQueue(int capacity) {
+        this(capacity, OverflowPolicy.REJECT);
+    }
+
+    public CircularQueue(int capacity, OverflowPolicy policy) {
         // Implementing Circular Queue
         // Initialize the circular queue with the given capacity
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
         this.capacity = capacity;
         this.queue = new int[capacity];
         this.front = -1;
         this.rear = -1;
+        this.policy = policy;
+        this.lock = policy == OverflowPolicy.BLOCK ? new ReentrantLock() : null;
+        this.notFull = lock == null ? null : lock.newCondition();
     }
 
+    // Adds the element, applying the overflow policy when full. A BLOCK queue waits for space;
+    // if the thread is interrupted while waiting, the element is dropped and the flag set again.
     public void enqueue(int i) {
-        // Check if the circular queue is full
-        if ((rear + 1) % capacity == front) {
-            System.out.println("Circular Queue is full. Cannot enqueue " + i);
+        if (lock == null) {
+            offerUnlocked(i);
+            return;
+        }
+        lock.lock();
+        try {
+            if (isFullUnlocked()) {
+                try {
+                    awaitSpace();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCount++;
+                    return;
+                }
+            }
+            insert(i);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Adds the element, applying the overflow policy when full. Returns false if it was dropped.
+    // Never waits, like offer in SpscCircularQueue and MpmcCircularQueue: a full BLOCK queue
+    // drops the element and returns false, like REJECT. enqueue and put are the waiting forms.
+    public boolean offer(int i) {
+        if (lock == null) {
+            return offerUnlocked(i);
+        }
+        lock.lock();
+        try {
+            return offerUnlocked(i);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Like offer, but never drops silently: a BLOCK queue waits (and reports interruption to the
+    // caller), every other policy throws IllegalStateException if the element was not added.
+    public void put(int i) throws InterruptedException {
+        if (lock == null) {
+            if (!offerUnlocked(i)) {
+                throw new IllegalStateException("Circular Queue is full. Cannot put " + i);
+            }
             return;
         }
+        lock.lockInterruptibly();
+        try {
+            if (isFullUnlocked()) {
+                awaitSpace();
+            }
+            insert(i);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean offerUnlocked(int i) {
+        // Check if the circular queue is full
+        if (isFullUnlocked()) {
+            switch (policy) {
+                case GROW:
+                    grow();
+                    break;
+                case OVERWRITE_OLDEST:
+                    // Free the front slot; rear moves onto it below
+                    front = (front + 1) % capacity;
+                    overwrittenCount++;
+                    break;
+                case THROW:
+                    droppedCount++;
+                    throw new IllegalStateException("Circular Queue is full. Cannot enqueue " + i);
+                default:    // REJECT, and BLOCK (offer does not wait)
+                    droppedCount++;
+                    return false;
+            }
+        }
+        insert(i);
+        return true;
+    }
 
+    // Writes the element after rear. There must be a free slot.
+    private void insert(int i) {
         // If the queue is empty, initialize front and rear
         if (front == -1) {
             front = 0;
@@ -31,7 +146,92 @@ public class CircularQueue {
         queue[rear] = i;
     }
 
+    // Called with the lock held (BLOCK only)
+    private void awaitSpace() throws InterruptedException {
+        blockedCount++;
+        while (isFullUnlocked()) {
+            notFull.await();
+        }
+    }
+
+    // Doubles the array. The ring is unwrapped while copying, so front becomes 0 again.
+    private void grow() {
+        int n = sizeUnlocked();
+        int newCapacity = capacity * 2;
+        if (newCapacity < 0) {
+            throw new IllegalStateException("Circular Queue cannot grow beyond " + capacity);
+        }
+        int[] bigger = new int[newCapacity];
+        if (n > 0) {
+            int first = Math.min(n, capacity - front);
+            System.arraycopy(queue, front, bigger, 0, first);
+            System.arraycopy(queue, 0, bigger, first, n - first);
+            front = 0;
+            rear = n - 1;
+        }
+        queue = bigger;
+        capacity = newCapacity;
+        resizeCount++;
+    }
+
+    // Wakes producers waiting in the BLOCK policy after elements were removed
+    private void signalSpace() {
+        if (notFull != null) {
+            notFull.signalAll();
+        }
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public long getDroppedCount() {
+        return read(() -> droppedCount);
+    }
+
+    public long getOverwrittenCount() {
+        return read(() -> overwrittenCount);
+    }
+
+    public long getResizeCount() {
+        return read(() -> resizeCount);
+    }
+
+    public long getBlockedCount() {
+        return read(() -> blockedCount);
+    }
+
+    public int capacity() {
+        return (int) read(() -> capacity);
+    }
+
+    // Reads a field, under the lock for a BLOCK queue so other threads' updates are visible
+    private long read(LongSupplier field) {
+        if (lock == null) {
+            return field.getAsLong();
+        }
+        lock.lock();
+        try {
+            return field.getAsLong();
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public void dequeue() {
+        if (lock == null) {
+            dequeueUnlocked();
+            return;
+        }
+        lock.lock();
+        try {
+            dequeueUnlocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dequeueUnlocked() {
         // Check if the circular queue is empty
         if (front == -1) {
             System.out.println("Circular Queue is empty. Cannot dequeue.");
@@ -46,9 +246,200 @@ public class CircularQueue {
             // Move front to the next position
             front = (front + 1) % capacity;
         }
+        signalSpace();
+    }
+
+    // Batch operations: copy a whole segment at once instead of one element per call.
+    // The occupied (or free) part of the ring is at most two contiguous pieces:
+    // from the index to the end of the array, and from 0 onwards after the wrap point.
+    // So every batch needs at most two System.arraycopy calls and one index update.
+
+    // Enqueue len elements from src[off..], applying the overflow policy to the part that does
+    // not fit. Returns how many were added:
+    //     REJECT           adds what fits, the rest counts as dropped
+    //     THROW            adds what fits, counts the rest as dropped, then throws
+    //     GROW             grows until the whole batch fits, returns len
+    //     OVERWRITE_OLDEST adds the whole batch, overwriting the oldest elements, returns len
+    //                      (if len > capacity, only the last capacity elements of src remain)
+    //     BLOCK            waits for space as often as needed; if interrupted, the rest of the
+    //                      batch counts as dropped and the interrupt flag is set again
+    public int enqueueAll(int[] src, int off, int len) {
+        if (off < 0 || len < 0 || off + len > src.length) {
+            throw new IndexOutOfBoundsException("off=" + off + ", len=" + len + ", length=" + src.length);
+        }
+        if (lock == null) {
+            return enqueueAllUnlocked(src, off, len);
+        }
+        lock.lock();
+        try {
+            return enqueueAllUnlocked(src, off, len);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int enqueueAllUnlocked(int[] src, int off, int len) {
+        switch (policy) {
+            case GROW:
+                while (capacity - sizeUnlocked() < len) {
+                    grow();
+                }
+                return copyIn(src, off, len);
+            case OVERWRITE_OLDEST:
+                return overwriteIn(src, off, len);
+            case BLOCK: {
+                int added = 0;
+                try {
+                    while (added < len) {
+                        if (isFullUnlocked()) {
+                            awaitSpace();
+                        }
+                        added += copyIn(src, off + added, Math.min(len - added, capacity - sizeUnlocked()));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedCount += len - added;
+                }
+                return added;
+            }
+            default: {
+                int n = copyIn(src, off, Math.min(len, capacity - sizeUnlocked()));
+                if (n < len) {
+                    droppedCount += len - n;
+                    if (policy == OverflowPolicy.THROW) {
+                        throw new IllegalStateException("Circular Queue is full. Enqueued " + n + " of " + len + " elements");
+                    }
+                }
+                return n;
+            }
+        }
+    }
+
+    // Copies n elements after rear. There must be room for all of them.
+    private int copyIn(int[] src, int off, int n) {
+        if (n == 0) {
+            return 0;
+        }
+
+        // If the queue is empty, start writing from index 0
+        int start = front == -1 ? 0 : (rear + 1) % capacity;
+        if (front == -1) {
+            front = 0;
+        }
+
+        int first = Math.min(n, capacity - start);
+        System.arraycopy(src, off, queue, start, first);
+        System.arraycopy(src, off + first, queue, 0, n - first);
+        rear = (start + n - 1) % capacity;
+        return n;
+    }
+
+    // OVERWRITE_OLDEST batch: drop as many old elements as needed, then copy
+    private int overwriteIn(int[] src, int off, int len) {
+        if (len >= capacity) {
+            // Everything already queued and the start of the batch are overwritten
+            overwrittenCount += sizeUnlocked() + (len - capacity);
+            System.arraycopy(src, off + len - capacity, queue, 0, capacity);
+            front = 0;
+            rear = capacity - 1;
+            return len;
+        }
+        int excess = sizeUnlocked() + len - capacity;
+        if (excess > 0) {
+            front = (front + excess) % capacity;
+            overwrittenCount += excess;
+        }
+        return copyIn(src, off, len);
+    }
+
+    // Dequeue up to max elements into dst[0..]. Returns how many were removed.
+    public int drainTo(int[] dst, int max) {
+        if (lock == null) {
+            return drainToUnlocked(dst, max);
+        }
+        lock.lock();
+        try {
+            return drainToUnlocked(dst, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int drainToUnlocked(int[] dst, int max) {
+        int n = Math.min(Math.min(max, dst.length), sizeUnlocked());
+        if (n <= 0) {
+            return 0;
+        }
+        int first = Math.min(n, capacity - front);
+        System.arraycopy(queue, front, dst, 0, first);
+        System.arraycopy(queue, 0, dst, first, n - first);
+        advanceFront(n);
+        return n;
+    }
+
+    // Dequeue up to max elements and hand each one to the consumer. Returns how many were removed.
+    public int drain(IntConsumer consumer, int max) {
+        if (lock == null) {
+            return drainUnlocked(consumer, max);
+        }
+        lock.lock();
+        try {
+            return drainUnlocked(consumer, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int drainUnlocked(IntConsumer consumer, int max) {
+        int n = Math.min(max, sizeUnlocked());
+        if (n <= 0) {
+            return 0;
+        }
+        // An element counts as removed once the consumer has accepted it. If the consumer throws,
+        // front still moves past everything it already received, so nothing is delivered twice.
+        int first = Math.min(n, capacity - front);
+        int delivered = 0;
+        try {
+            for (int i = front; i < front + first; i++) {
+                consumer.accept(queue[i]);
+                delivered++;
+            }
+            for (int i = 0; i < n - first; i++) {
+                consumer.accept(queue[i]);
+                delivered++;
+            }
+        } finally {
+            if (delivered > 0) {
+                advanceFront(delivered);
+            }
+        }
+        return n;
+    }
+
+    // Move front forward by n elements, resetting to empty if everything was removed
+    private void advanceFront(int n) {
+        if (n == sizeUnlocked()) {
+            front = -1;
+            rear = -1;
+        } else {
+            front = (front + n) % capacity;
+        }
+        signalSpace();
     }
 
     public String toString() {
+        if (lock == null) {
+            return toStringUnlocked();
+        }
+        lock.lock();
+        try {
+            return toStringUnlocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String toStringUnlocked() {
         if (front == -1) {
             return "[]";
         }
@@ -71,15 +462,39 @@ public class CircularQueue {
     }
 
     public boolean isEmpty() {
-        return front == -1;
+        return size() == 0;
     }
 
     public boolean isFull() {
-        return (rear + 1) % capacity == front;
+        if (lock == null) {
+            return isFullUnlocked();
+        }
+        lock.lock();
+        try {
+            return isFullUnlocked();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public int size() {
-        if (isEmpty()) {
+        if (lock == null) {
+            return sizeUnlocked();
+        }
+        lock.lock();
+        try {
+            return sizeUnlocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isFullUnlocked() {
+        return (rear + 1) % capacity == front;
+    }
+
+    private int sizeUnlocked() {
+        if (front == -1) {
             return 0;
         }
         if (rear >= front) {
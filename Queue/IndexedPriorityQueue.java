@@ -0,0 +1,284 @@
+/*
+
+Explaining Indexed Priority Queue:
+ - A min priority queue where every element is an integer id in the range [0, maxId).
+   Each id is in the queue at most once and has a key (its priority).
+ - Because we can find an id inside the heap in O(1), we can change its key or remove it
+   in O(log n). A normal priority queue can only look at the top.
+
+ Why it helps Dijkstra's shortest path:
+    - With a normal priority queue we insert the vertex again every time its distance improves
+      and skip the old (stale) entries when they are polled. The heap grows to the number of edges.
+    - With an indexed priority queue we just call decreaseKey(vertex, newDistance).
+      The heap never holds more than one entry per vertex, and every poll is useful.
+
+ Arrays used (no HashMap, no objects per element):
+    heap[i]  : id stored at heap position i
+    pos[id]  : position of id in heap, or -1 if id is not in the queue
+    key[id]  : current key of id
+
+ Operations:
+    insert(id, key)        O(log n)
+    decreaseKey(id, key)   O(log n)   - key must not be bigger than the current key
+    increaseKey(id, key)   O(log n)   - key must not be smaller than the current key
+    changeKey(id, key)     O(log n)
+    remove(id)             O(log n)
+    contains(id), keyOf(id), peekMin(), minKey()  O(1)
+    pollMin()              O(log n)   - returns the id with the smallest key
+
+ The heap is 4-ary like PriorityQueue. Ties between equal keys are broken by smaller id,
+ so the result does not depend on the order of operations.
+
+*/
+public class IndexedPriorityQueue {
+
+    private static final int ARITY = 4;
+
+    private final int[] heap;
+    private final int[] pos;
+    private final int[] key;
+    private int size;
+
+    public IndexedPriorityQueue(int maxId) {
+        if (maxId < 0) {
+            throw new IllegalArgumentException("maxId must not be negative: " + maxId);
+        }
+        heap = new int[maxId];
+        pos = new int[maxId];
+        key = new int[maxId];
+        java.util.Arrays.fill(pos, -1);
+    }
+
+    public boolean contains(int id) {
+        checkId(id);
+        return pos[id] != -1;
+    }
+
+    public int keyOf(int id) {
+        checkContains(id);
+        return key[id];
+    }
+
+    public void insert(int id, int newKey) {
+        checkId(id);
+        if (pos[id] != -1) {
+            throw new IllegalArgumentException("Id " + id + " is already in the queue");
+        }
+        key[id] = newKey;
+        pos[id] = size;
+        heap[size] = id;
+        siftUp(size++);
+    }
+
+    public void decreaseKey(int id, int newKey) {
+        checkContains(id);
+        if (newKey > key[id]) {
+            throw new IllegalArgumentException("New key " + newKey + " is bigger than current key " + key[id]);
+        }
+        key[id] = newKey;
+        siftUp(pos[id]);
+    }
+
+    public void increaseKey(int id, int newKey) {
+        checkContains(id);
+        if (newKey < key[id]) {
+            throw new IllegalArgumentException("New key " + newKey + " is smaller than current key " + key[id]);
+        }
+        key[id] = newKey;
+        siftDown(pos[id]);
+    }
+
+    public void changeKey(int id, int newKey) {
+        checkContains(id);
+        int old = key[id];
+        key[id] = newKey;
+        if (newKey < old) {
+            siftUp(pos[id]);
+        } else {
+            siftDown(pos[id]);
+        }
+    }
+
+    // Inserts the id, or lowers its key if the new key is smaller. Returns true if anything changed.
+    // This is the single call a Dijkstra relaxation needs.
+    public boolean insertOrDecrease(int id, int newKey) {
+        checkId(id);
+        if (pos[id] == -1) {
+            insert(id, newKey);
+            return true;
+        }
+        if (newKey < key[id]) {
+            key[id] = newKey;
+            siftUp(pos[id]);
+            return true;
+        }
+        return false;
+    }
+
+    public void remove(int id) {
+        checkContains(id);
+        int index = pos[id];
+        int last = --size;
+        pos[id] = -1;
+        if (index != last) {
+            int moved = heap[last];
+            heap[index] = moved;
+            pos[moved] = index;
+            // The moved element can be either smaller or bigger than its new neighbours
+            siftUp(index);
+            siftDown(pos[moved]);
+        }
+    }
+
+    // Returns the id with the smallest key without removing it, or -1 if empty.
+    public int peekMin() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    public int minKey() {
+        if (size == 0) {
+            throw new java.util.NoSuchElementException("Indexed Priority Queue is empty");
+        }
+        return key[heap[0]];
+    }
+
+    // Removes and returns the id with the smallest key, or -1 if empty.
+    public int pollMin() {
+        if (size == 0) {
+            return -1;
+        }
+        int min = heap[0];
+        remove(min);
+        return min;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean less(int a, int b) {
+        return key[a] < key[b] || (key[a] == key[b] && a < b);
+    }
+
+    private void siftUp(int index) {
+        int id = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            if (!less(id, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            pos[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        pos[id] = index;
+    }
+
+    private void siftDown(int index) {
+        int id = heap[index];
+        while (true) {
+            int firstChild = ARITY * index + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int best = firstChild;
+            for (int c = firstChild + 1; c < lastChild; c++) {
+                if (less(heap[c], heap[best])) {
+                    best = c;
+                }
+            }
+            if (!less(heap[best], id)) {
+                break;
+            }
+            heap[index] = heap[best];
+            pos[heap[index]] = index;
+            index = best;
+        }
+        heap[index] = id;
+        pos[id] = index;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= pos.length) {
+            throw new IndexOutOfBoundsException("Id " + id + " is outside [0, " + pos.length + ")");
+        }
+    }
+
+    private void checkContains(int id) {
+        checkId(id);
+        if (pos[id] == -1) {
+            throw new java.util.NoSuchElementException("Id " + id + " is not in the queue");
+        }
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int i = 0; i < size; i++) {
+            sb.append("(").append(heap[i]).append(", ").append(key[heap[i]]).append(")");
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        IndexedPriorityQueue ipq = new IndexedPriorityQueue(10);
+        ipq.insert(3, 30);
+        ipq.insert(5, 50);
+        ipq.insert(7, 70);
+        System.out.println("Min id: " + ipq.peekMin() + " with key " + ipq.minKey());
+
+        ipq.decreaseKey(7, 10);
+        System.out.println("Min id after decreaseKey(7, 10): " + ipq.peekMin());
+
+        ipq.remove(7);
+        ipq.increaseKey(3, 60);
+        System.out.println("Min id after remove(7) and increaseKey(3, 60): " + ipq.peekMin());
+        System.out.println("Contains 7? " + ipq.contains(7) + ", size: " + ipq.size());
+
+        // Dijkstra's shortest path on a small graph given as {from, to, weight}
+        int vertices = 5;
+        int[][] edges = {{0, 1, 4}, {0, 2, 1}, {2, 1, 2}, {1, 3, 1}, {2, 3, 5}, {3, 4, 3}};
+        int[] dist = new int[vertices];
+        java.util.Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[0] = 0;
+
+        IndexedPriorityQueue pq = new IndexedPriorityQueue(vertices);
+        pq.insert(0, 0);
+        int pops = 0;
+        while (!pq.isEmpty()) {
+            int u = pq.pollMin();
+            pops++;
+            for (int[] e : edges) {
+                if (e[0] == u && dist[u] + e[2] < dist[e[1]]) {
+                    dist[e[1]] = dist[u] + e[2];
+                    pq.insertOrDecrease(e[1], dist[e[1]]);
+                }
+            }
+        }
+        System.out.println("Shortest distances from 0: " + java.util.Arrays.toString(dist));
+        System.out.println("Number of polls: " + pops);
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Min id: 3 with key 30
+Min id after decreaseKey(7, 10): 7
+Min id after remove(7) and increaseKey(3, 60): 5
+Contains 7? false, size: 2
+Shortest distances from 0: [0, 3, 1, 4, 7]
+Number of polls: 5
+
+*/
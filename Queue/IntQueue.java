@@ -0,0 +1,144 @@
+/*
+
+Explaining IntQueue (unbounded queue of primitive ints):
+ - java.util.LinkedList<Integer> boxes every value into an Integer object and creates a node
+   object for every element (about 40 bytes of overhead for 4 bytes of data).
+ - IntQueue stores the values directly in int[] chunks (segments) of CHUNK_SIZE elements:
+
+        head chunk                               tail chunk
+        [ . . . 7 8 9 ] -> [ 10 11 ... 99 ] -> [ 100 101 . . . ]
+              ^ headIndex                               ^ tailIndex
+
+   offer writes at tailIndex of the tail chunk, and links a new chunk when it is full.
+   poll reads at headIndex of the head chunk, and unlinks the chunk when it is used up.
+ - The unlinked chunk is kept as a spare and reused for the next new tail chunk, so a queue
+   that stays around the same size (like BFS frontier) stops allocating after warm-up.
+ - Memory per element is 4 bytes plus one chunk header per CHUNK_SIZE elements.
+
+ poll() and peek() return EMPTY when the queue is empty, same as SpscCircularQueue.
+ Check isEmpty() first if Integer.MIN_VALUE is a valid value in your data.
+
+*/
+public class IntQueue {
+
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    private static final int CHUNK_SIZE = 1024;
+    private static final int MAX_SPARE_CHUNKS = 4;
+
+    private static final class Chunk {
+        final int[] data = new int[CHUNK_SIZE];
+        Chunk next;
+    }
+
+    private Chunk head;
+    private Chunk tail;
+    private int headIndex;   // next position to poll in head
+    private int tailIndex;   // next position to offer in tail
+    private int size;
+
+    // Recycled chunks, linked through next
+    private Chunk spare;
+    private int spareCount;
+
+    public IntQueue() {
+        head = tail = new Chunk();
+    }
+
+    // Always succeeds, the queue is unbounded. Returns true to match Queue.offer.
+    public boolean offer(int value) {
+        if (tailIndex == CHUNK_SIZE) {
+            Chunk chunk = takeSpare();
+            tail.next = chunk;
+            tail = chunk;
+            tailIndex = 0;
+        }
+        tail.data[tailIndex++] = value;
+        size++;
+        return true;
+    }
+
+    public int poll() {
+        if (size == 0) {
+            return EMPTY;
+        }
+        if (headIndex == CHUNK_SIZE) {
+            Chunk used = head;
+            head = head.next;
+            headIndex = 0;
+            recycle(used);
+        }
+        int value = head.data[headIndex++];
+        size--;
+        if (size == 0) {
+            // Empty again: start over at the beginning of the current chunk
+            headIndex = tailIndex = 0;
+        }
+        return value;
+    }
+
+    public int peek() {
+        if (size == 0) {
+            return EMPTY;
+        }
+        return headIndex == CHUNK_SIZE ? head.next.data[0] : head.data[headIndex];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        while (head != tail) {
+            Chunk used = head;
+            head = head.next;
+            recycle(used);
+        }
+        headIndex = tailIndex = 0;
+        size = 0;
+    }
+
+    private Chunk takeSpare() {
+        if (spare == null) {
+            return new Chunk();
+        }
+        Chunk chunk = spare;
+        spare = chunk.next;
+        chunk.next = null;
+        spareCount--;
+        return chunk;
+    }
+
+    private void recycle(Chunk chunk) {
+        if (spareCount < MAX_SPARE_CHUNKS) {
+            chunk.next = spare;
+            spare = chunk;
+            spareCount++;
+        } else {
+            chunk.next = null;
+        }
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        Chunk chunk = head;
+        int index = headIndex;
+        for (int i = 0; i < size; i++) {
+            if (index == CHUNK_SIZE) {
+                chunk = chunk.next;
+                index = 0;
+            }
+            sb.append(chunk.data[index++]);
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
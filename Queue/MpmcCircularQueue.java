@@ -0,0 +1,271 @@
+/*
+
+Explaining Multi-Producer / Multi-Consumer (MPMC) Circular Queue:
+ - Same array ring as CircularQueue, but any number of threads can enqueue and dequeue
+   at the same time, without one global lock.
+ - This is the bounded queue design by Dmitry Vyukov. Every slot has its own sequence number
+   that tells threads whether the slot is ready to be written or ready to be read.
+
+ How the sequence numbers work (capacity = N, slot = position & mask):
+    - At the start, sequence[i] = i. So slot i is "free for the producer with position i".
+    - Producer with position p: if sequence[slot] == p, it claims p with a CAS on the
+      enqueue counter, writes the value, and sets sequence[slot] = p + 1.
+      If sequence[slot] < p the slot still holds an old element => queue is full.
+    - Consumer with position p: if sequence[slot] == p + 1, it claims p with a CAS on the
+      dequeue counter, reads the value, and sets sequence[slot] = p + N
+      (free for the producer that comes one full lap later).
+      If sequence[slot] < p + 1 the slot has not been written yet => queue is empty.
+
+ - Producers only fight with producers (on the enqueue counter) and consumers only fight with
+   consumers (on the dequeue counter). They meet only on the slot they both touch.
+ - Enqueue and dequeue counters live on different cache lines to avoid false sharing.
+
+ Operations:
+    offer(v)                 : non-blocking, returns false when full.
+    poll()                   : non-blocking, returns EMPTY when empty.
+    put(v) / take()          : wait until there is space / an element.
+    offer(v, timeout, unit)  : wait at most timeout, returns false on timeout.
+    poll(timeout, unit)      : wait at most timeout, returns EMPTY on timeout.
+
+*/
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class MpmcCircularQueue {
+
+    // Returned by poll() when the queue is empty (same convention as SpscCircularQueue).
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    private static final long NOTHING = Long.MIN_VALUE;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Enqueue and dequeue counters on their own 64 byte cache lines
+    private static final int ENQUEUE = 8;
+    private static final int DEQUEUE = 24;
+    private static final int COUNTERS_LENGTH = 40;
+
+    private static final int SPIN_TRIES = 64;
+    private static final int YIELD_TRIES = 128;
+
+    private final int[] queue;
+    private final long[] sequence;
+    private final int capacity;
+    private final int mask;
+    private final long[] counters;
+
+    public MpmcCircularQueue(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        this.capacity = Math.max(2, SpscCircularQueue.roundUpToPowerOfTwo(capacity));
+        this.mask = this.capacity - 1;
+        this.queue = new int[this.capacity];
+        this.sequence = new long[this.capacity];
+        for (int i = 0; i < this.capacity; i++) {
+            sequence[i] = i;
+        }
+        this.counters = new long[COUNTERS_LENGTH];
+        VarHandle.releaseFence();
+    }
+
+    public boolean offer(int value) {
+        long pos = (long) LONGS.getVolatile(counters, ENQUEUE);
+        while (true) {
+            int slot = (int) pos & mask;
+            long seq = (long) LONGS.getAcquire(sequence, slot);
+            long dif = seq - pos;
+            if (dif == 0) {
+                if (LONGS.weakCompareAndSet(counters, ENQUEUE, pos, pos + 1)) {
+                    queue[slot] = value;
+                    LONGS.setRelease(sequence, slot, pos + 1);
+                    return true;
+                }
+                pos = (long) LONGS.getVolatile(counters, ENQUEUE);
+            } else if (dif < 0) {
+                return false; // slot still holds an element from the previous lap
+            } else {
+                pos = (long) LONGS.getVolatile(counters, ENQUEUE); // another producer moved ahead
+            }
+        }
+    }
+
+    public int poll() {
+        long result = tryPoll();
+        return result == NOTHING ? EMPTY : (int) result;
+    }
+
+    // Core of poll(). Returns the element widened to long, or NOTHING when empty,
+    // so that take() and the timed poll() can tell a stored Integer.MIN_VALUE apart from "empty".
+    private long tryPoll() {
+        long pos = (long) LONGS.getVolatile(counters, DEQUEUE);
+        while (true) {
+            int slot = (int) pos & mask;
+            long seq = (long) LONGS.getAcquire(sequence, slot);
+            long dif = seq - (pos + 1);
+            if (dif == 0) {
+                if (LONGS.weakCompareAndSet(counters, DEQUEUE, pos, pos + 1)) {
+                    int value = queue[slot];
+                    LONGS.setRelease(sequence, slot, pos + capacity);
+                    return value;
+                }
+                pos = (long) LONGS.getVolatile(counters, DEQUEUE);
+            } else if (dif < 0) {
+                return NOTHING; // slot not written yet
+            } else {
+                pos = (long) LONGS.getVolatile(counters, DEQUEUE);
+            }
+        }
+    }
+
+    public void put(int value) throws InterruptedException {
+        for (int attempt = 0; !offer(value); attempt++) {
+            backOff(attempt);
+        }
+    }
+
+    public int take() throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            long result = tryPoll();
+            if (result != NOTHING) {
+                return (int) result;
+            }
+            backOff(attempt);
+        }
+    }
+
+    public boolean offer(int value, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int attempt = 0; !offer(value); attempt++) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            backOff(attempt);
+        }
+        return true;
+    }
+
+    public int poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int attempt = 0; ; attempt++) {
+            long result = tryPoll();
+            if (result != NOTHING) {
+                return (int) result;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return EMPTY;
+            }
+            backOff(attempt);
+        }
+    }
+
+    // Spin first (cheap, keeps the core), then yield, then park for a short time.
+    private static void backOff(int attempt) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+    }
+
+    // size, isEmpty and isFull are only a snapshot while other threads are running.
+    public int size() {
+        while (true) {
+            long dequeue = (long) LONGS.getVolatile(counters, DEQUEUE);
+            long enqueue = (long) LONGS.getVolatile(counters, ENQUEUE);
+            if (dequeue == (long) LONGS.getVolatile(counters, DEQUEUE)) {
+                return (int) Math.max(0, Math.min(capacity, enqueue - dequeue));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean isFull() {
+        return size() == capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        MpmcCircularQueue mpmc = new MpmcCircularQueue(4);
+        for (int i = 1; i <= 5; i++) {
+            if (!mpmc.offer(i)) {
+                System.out.println("Queue is full, could not offer " + i);
+            }
+        }
+        System.out.println("Polled element: " + mpmc.poll());
+        System.out.println("Size of queue: " + mpmc.size());
+        System.out.println("Timed offer of 6 succeeded? " + mpmc.offer(6, 10, TimeUnit.MILLISECONDS));
+        System.out.println("Timed offer of 7 succeeded? " + mpmc.offer(7, 10, TimeUnit.MILLISECONDS));
+
+        // 4 producers and 4 consumers sharing one queue
+        final int producers = 4;
+        final int consumers = 4;
+        final int perProducer = 250_000;
+        MpmcCircularQueue shared = new MpmcCircularQueue(1024);
+        long[] sums = new long[consumers];
+        Thread[] threads = new Thread[producers + consumers];
+
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                try {
+                    for (int i = 1; i <= perProducer; i++) {
+                        shared.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            final int id = c;
+            threads[producers + c] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer * producers / consumers; i++) {
+                        sums[id] += shared.take();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        long total = 0;
+        for (long s : sums) {
+            total += s;
+        }
+        System.out.println("Total received by consumers: " + total);
+        System.out.println("Queue empty at the end? " + shared.isEmpty());
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Queue is full, could not offer 5
+Polled element: 1
+Size of queue: 3
+Timed offer of 6 succeeded? true
+Timed offer of 7 succeeded? false
+Total received by consumers: 125000500000
+Queue empty at the end? true
+
+*/
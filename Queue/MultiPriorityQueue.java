@@ -0,0 +1,222 @@
+/*
+
+Explaining MultiQueue (relaxed concurrent priority queue):
+ - One PriorityQueue behind one lock lets only one thread work at a time. With many threads
+   the lock becomes the bottleneck.
+ - A MultiQueue keeps c * P separate PriorityQueue heaps (P = number of threads, c = small
+   constant like 2 to 4), each with its own lock.
+    - enqueue : pick a random heap, lock it, insert.
+    - dequeue : pick TWO random heaps, look at their top priorities and remove from the better one.
+                ("power of two choices")
+ - Threads almost never want the same heap at the same moment, so there is very little waiting
+   and throughput grows with the number of threads.
+
+ The trade-off is ordering. dequeue does not always return the global minimum, only an element
+ that is close to it. The "rank error" is how many elements in the whole queue had a better
+ priority than the one returned. For the MultiQueue the expected rank error is O(number of heaps),
+ independent of the queue size. So:
+    - more heaps (bigger c)  => less contention, bigger rank error
+    - 1 heap                 => exact order, same as a single locked PriorityQueue
+ measureRankError() below measures the average rank error for a given configuration.
+
+ Every heap caches its top priority in a volatile field, so choosing between two heaps does not
+ need any lock. Locks are taken with tryLock; if a heap is busy we simply pick other heaps.
+
+*/
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class MultiPriorityQueue {
+
+    private static final int EMPTY_TOP = Integer.MAX_VALUE;
+
+    // One heap with its lock and the cached priority of its top element
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final PriorityQueue heap = new PriorityQueue();
+        volatile int top = EMPTY_TOP;
+        volatile int size;
+
+        void updateTop() {
+            size = heap.size();
+            top = heap.isEmpty() ? EMPTY_TOP : heap.peekPriority();
+        }
+    }
+
+    private final Shard[] shards;
+
+    public MultiPriorityQueue(int threads, int heapsPerThread) {
+        if (threads < 1 || heapsPerThread < 1) {
+            throw new IllegalArgumentException("threads and heapsPerThread must be at least 1");
+        }
+        shards = new Shard[threads * heapsPerThread];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    public void enqueue(int data, int priority) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard shard = shards[random.nextInt(shards.length)];
+            if (shard.lock.tryLock()) {
+                try {
+                    shard.heap.enqueue(data, priority);
+                    shard.updateTop();
+                    return;
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+        }
+    }
+
+    // Removes an element with (nearly) the smallest priority. Returns -1 when every heap is empty,
+    // same as PriorityQueue.dequeue (but without printing).
+    public int dequeue() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int n = shards.length;
+        for (int attempt = 0; attempt < 2 * n; attempt++) {
+            Shard a = shards[random.nextInt(n)];
+            Shard b = shards[random.nextInt(n)];
+            Shard best = b.top < a.top ? b : a;
+            if (best.top == EMPTY_TOP) {
+                continue; // both look empty, try two other heaps
+            }
+            if (best.lock.tryLock()) {
+                try {
+                    if (!best.heap.isEmpty()) {
+                        int data = best.heap.dequeue();
+                        best.updateTop();
+                        return data;
+                    }
+                } finally {
+                    best.lock.unlock();
+                }
+            }
+        }
+        return dequeueSlow();
+    }
+
+    // Random picks kept missing: go through every heap in order, waiting for locks.
+    private int dequeueSlow() {
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            Shard shard = shards[(start + i) % shards.length];
+            if (shard.top == EMPTY_TOP) {
+                continue;
+            }
+            shard.lock.lock();
+            try {
+                if (!shard.heap.isEmpty()) {
+                    int data = shard.heap.dequeue();
+                    shard.updateTop();
+                    return data;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return -1;
+    }
+
+    // Snapshot, may be out of date while other threads are running.
+    public int size() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.size;
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        for (Shard shard : shards) {
+            if (shard.top != EMPTY_TOP) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int heapCount() {
+        return shards.length;
+    }
+
+    // Single threaded measurement of the ordering quality: fill with n random priorities
+    // (data = priority), then dequeue everything and compute for each result how many
+    // remaining elements had a strictly smaller priority. Returns the average of that rank error.
+    public static double measureRankError(int threads, int heapsPerThread, int n, int maxPriority) {
+        MultiPriorityQueue queue = new MultiPriorityQueue(threads, heapsPerThread);
+        int[] count = new int[maxPriority];   // how many of each priority are still queued
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < n; i++) {
+            int p = random.nextInt(maxPriority);
+            queue.enqueue(p, p);
+            count[p]++;
+        }
+        long totalError = 0;
+        for (int i = 0; i < n; i++) {
+            int p = queue.dequeue();
+            for (int smaller = 0; smaller < p; smaller++) {
+                totalError += count[smaller];
+            }
+            count[p]--;
+        }
+        return (double) totalError / n;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        MultiPriorityQueue mpq = new MultiPriorityQueue(1, 1);
+        mpq.enqueue(10, 2);
+        mpq.enqueue(20, 1);
+        mpq.enqueue(30, 3);
+        System.out.print("Dequeue order with one heap (exact): ");
+        while (!mpq.isEmpty()) {
+            System.out.print(mpq.dequeue() + " ");
+        }
+        System.out.println();
+
+        System.out.println("Average rank error with 1 heap  : " + measureRankError(1, 1, 10_000, 1000));
+        System.out.printf("Average rank error with 16 heaps: %.1f%n", measureRankError(8, 2, 10_000, 1000));
+
+        // 8 threads enqueue and dequeue at the same time
+        final int threads = 8;
+        final int perThread = 100_000;
+        MultiPriorityQueue shared = new MultiPriorityQueue(threads, 2);
+        long[] received = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    shared.enqueue(i, i);
+                    if (shared.dequeue() != -1) {
+                        received[id]++;
+                    }
+                }
+            });
+        }
+        for (Thread w : workers) {
+            w.start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        long total = shared.size();
+        for (long r : received) {
+            total += r;
+        }
+        System.out.println("Dequeued plus remaining elements: " + total);
+    }
+}
+
+/*
+
+Sample output of the above code (rank error of 16 heaps varies from run to run):
+
+Dequeue order with one heap (exact): 20 10 30
+Average rank error with 1 heap  : 0.0
+Average rank error with 16 heaps: 10.1
+Dequeued plus remaining elements: 800000
+
+*/
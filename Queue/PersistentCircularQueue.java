@@ -0,0 +1,256 @@
+/*
+
+Explaining Persistent (memory-mapped) Circular Queue:
+ - Same ring as CircularQueue, but the array lives in a file instead of the Java heap.
+   The file is memory-mapped (MappedByteBuffer), so reading and writing a slot is just a
+   memory access; the operating system writes the changed pages back to disk.
+ - The head and tail indices are stored in a small header page at the start of the file.
+   They are written there by flush() (and so by close()). When the process restarts, the queue
+   is opened again and continues from those indices.
+
+ File layout:
+    bytes 0 .. 4095        : header page
+        offset 0   int   magic number (to recognise our files)
+        offset 4   int   capacity (must match when the file is opened again)
+        offset 8   long  head (total number of elements ever removed)
+        offset 16  long  tail (total number of elements ever added)
+    bytes 4096 .. end      : capacity ints, the ring itself
+
+ Like SpscCircularQueue the capacity is a power of two and head/tail are ever-increasing
+ counters: slot = counter & mask, size = tail - head.
+
+ Durability and flush batching:
+    - force() (fsync) makes sure the data really is on disk, but it is slow (often milliseconds).
+    - Calling it after every operation would be thousands of times slower than the in-heap queue.
+    - So we flush every flushEveryOps operations OR when flushEveryMillis have passed since the
+      last flush (checked on each operation), whichever comes first. flush() can be called any time.
+    - force() gives no order between pages: the kernel may write the header page before the ring
+      pages, or write back a dirty header page on its own at any time. So offer and poll only
+      change head and tail in memory, and flush() works in two phases:
+          1. force the ring, so every element up to tail is on disk
+          2. write head and tail into the header page and force it
+      The header on disk therefore never points at elements that are not on disk yet.
+    - A slot freed by poll is only free on disk once the new head has been flushed. Until then
+      the element in it must survive, so when offer would reuse such a slot it flushes first.
+      (The kernel may write the ring page back at any time, so it can not simply wait.)
+    - If the process or the machine crashes, at most the operations since the last flush are
+      lost: offered elements are missing and polled elements come back (at-least-once delivery).
+ Methods are synchronized, so one queue object can be shared between threads of the same process.
+
+*/
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class PersistentCircularQueue implements AutoCloseable {
+
+    // Returned by poll() and peek() when the queue is empty (same as SpscCircularQueue).
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x43515545;   // "CQUE"
+    private static final int HEADER_SIZE = 4096;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int HEAD_OFFSET = 8;
+    private static final int TAIL_OFFSET = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int flushEveryOps;
+    private final long flushEveryNanos;
+
+    private long head;
+    private long tail;
+    private long flushedHead;   // head as stored on disk; slots from here to tail may not be reused
+    private int opsSinceFlush;
+    private long lastFlushTime;
+
+    // Opens the queue stored in file, creating it if it does not exist yet.
+    // flushEveryOps <= 0 or flushEveryMillis <= 0 disables that trigger.
+    public PersistentCircularQueue(Path file, int capacity, int flushEveryOps, long flushEveryMillis) throws IOException {
+        if (capacity < 1 || capacity > (1 << 28)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^28: " + capacity);
+        }
+        this.capacity = SpscCircularQueue.roundUpToPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.flushEveryOps = flushEveryOps;
+        this.flushEveryNanos = flushEveryMillis * 1_000_000L;
+
+        boolean existed = Files.exists(file) && Files.size(file) > 0;
+        long fileSize = HEADER_SIZE + (long) this.capacity * Integer.BYTES;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (existed && channel.size() != fileSize) {
+                throw new IOException("File " + file + " has size " + channel.size() + ", expected " + fileSize);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            if (existed) {
+                if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(CAPACITY_OFFSET) != this.capacity) {
+                    throw new IOException("File " + file + " is not a circular queue of capacity " + this.capacity);
+                }
+                head = buffer.getLong(HEAD_OFFSET);
+                tail = buffer.getLong(TAIL_OFFSET);
+                if (head < 0 || tail < head || tail - head > this.capacity) {
+                    throw new IOException("File " + file + " has a corrupt header: head=" + head + ", tail=" + tail);
+                }
+                flushedHead = head;
+            } else {
+                buffer.putInt(CAPACITY_OFFSET, this.capacity);
+                buffer.putLong(HEAD_OFFSET, 0);
+                buffer.putLong(TAIL_OFFSET, 0);
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.force();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.lastFlushTime = System.nanoTime();
+    }
+
+    // Returns false if the queue is full.
+    public synchronized boolean offer(int value) {
+        if (tail - head == capacity) {
+            return false;
+        }
+        if (tail - flushedHead == capacity) {
+            flush();    // the slot is free in memory, but a crash would bring its element back
+        }
+        buffer.putInt(slotOffset(tail), value);
+        tail++;
+        afterOperation();
+        return true;
+    }
+
+    // Returns EMPTY if there is nothing to take.
+    public synchronized int poll() {
+        if (head == tail) {
+            return EMPTY;
+        }
+        int value = buffer.getInt(slotOffset(head));
+        head++;
+        afterOperation();
+        return value;
+    }
+
+    public synchronized int peek() {
+        return head == tail ? EMPTY : buffer.getInt(slotOffset(head));
+    }
+
+    private int slotOffset(long counter) {
+        return HEADER_SIZE + ((int) counter & mask) * Integer.BYTES;
+    }
+
+    private void afterOperation() {
+        opsSinceFlush++;
+        if ((flushEveryOps > 0 && opsSinceFlush >= flushEveryOps)
+                || (flushEveryNanos > 0 && System.nanoTime() - lastFlushTime >= flushEveryNanos)) {
+            flush();
+        }
+    }
+
+    // Writes the ring to the disk, then the header that publishes it (see "Durability" above).
+    public synchronized void flush() {
+        buffer.force(HEADER_SIZE, capacity * Integer.BYTES);
+        buffer.putLong(HEAD_OFFSET, head);
+        buffer.putLong(TAIL_OFFSET, tail);
+        buffer.force(0, HEADER_SIZE);
+        flushedHead = head;
+        opsSinceFlush = 0;
+        lastFlushTime = System.nanoTime();
+    }
+
+    public synchronized int size() {
+        return (int) (tail - head);
+    }
+
+    public synchronized boolean isEmpty() {
+        return head == tail;
+    }
+
+    public synchronized boolean isFull() {
+        return tail - head == capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            flush();
+            channel.close();
+        }
+    }
+
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (long i = head; i < tail; i++) {
+            sb.append(buffer.getInt(slotOffset(i)));
+            if (i < tail - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("circular-queue", ".dat");
+        Files.delete(file); // start with a fresh queue
+
+        // First "process": add some events and take one
+        try (PersistentCircularQueue queue = new PersistentCircularQueue(file, 8, 100, 10)) {
+            for (int i = 1; i <= 5; i++) {
+                queue.offer(i * 10);
+            }
+            System.out.println("Polled element: " + queue.poll());
+            System.out.println("Queue before restart: " + queue);
+        }
+
+        // Second "process": open the same file and continue where we stopped
+        try (PersistentCircularQueue queue = new PersistentCircularQueue(file, 8, 100, 10)) {
+            System.out.println("Queue after restart: " + queue);
+            queue.offer(60);
+            System.out.println("Polled element: " + queue.poll());
+            System.out.println("Size of queue: " + queue.size());
+        }
+
+        // Throughput with flush batching
+        Path big = Files.createTempFile("circular-queue-big", ".dat");
+        Files.delete(big);
+        try (PersistentCircularQueue queue = new PersistentCircularQueue(big, 1 << 16, 1 << 15, 100)) {
+            int count = 1_000_000;
+            long start = System.nanoTime();
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                queue.offer(i);
+                sum += queue.poll();
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Moved " + count + " elements through the file, sum " + sum + " (" + millis + " ms)");
+        }
+        Files.delete(file);
+        Files.delete(big);
+    }
+}
+
+/*
+
+Sample output of the above code (time depends on the machine and disk):
+
+Polled element: 10
+Queue before restart: [20, 30, 40, 50]
+Queue after restart: [20, 30, 40, 50]
+Polled element: 20
+Size of queue: 4
+Moved 1000000 elements through the file, sum 499999500000 (150 ms)
+
+*/
@@ -1,56 +1,161 @@
-import java.util.LinkedList;
+import java.util.Arrays;
+
+// Priority queue implemented as a d-ary min-heap stored in parallel primitive arrays.
+// Lower priority number = served first. Elements with equal priority come out in
+// the order they were enqueued (FIFO), using an insertion counter as the tie-breaker.
+//
+// Heap layout for arity d (d = 2 is the usual binary heap):
+//     children of i : d * i + 1 ... d * i + d
+//     parent of i   : (i - 1) / d
+// A bigger d makes the tree flatter (fewer levels to sift through on enqueue) and keeps
+// the children of a node next to each other in memory. d = 4 is a good default.
 public class PriorityQueue {
 
-    private class Node {
-        int data;
-        int priority;
+    private static final int DEFAULT_ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int arity;
+    private int[] data;
+    private int[] priority;
+    private long[] order;     // insertion number, keeps FIFO order among equal priorities
+    private long nextOrder;
+    private int size;
 
-        Node(int data, int priority) {
-            this.data = data;
-            this.priority = priority;
-        }
-    }
-    private LinkedList<Node> queue;
     public PriorityQueue() {
-        queue = new LinkedList<>();
+        this(DEFAULT_ARITY, DEFAULT_CAPACITY);
+    }
+
+    public PriorityQueue(int arity) {
+        this(arity, DEFAULT_CAPACITY);
+    }
+
+    public PriorityQueue(int arity, int initialCapacity) {
+        if (arity != 2 && arity != 4 && arity != 8) {
+            throw new IllegalArgumentException("Arity must be 2, 4 or 8: " + arity);
+        }
+        int capacity = Math.max(1, initialCapacity);
+        this.arity = arity;
+        this.data = new int[capacity];
+        this.priority = new int[capacity];
+        this.order = new long[capacity];
     }
 
     public void enqueue(int data, int priority) {
-        Node newNode = new Node(data, priority);
-        if (queue.isEmpty()) {
-            queue.add(newNode);
-        } else {
-            int i = 0;
-            while (i < queue.size() && queue.get(i).priority <= priority) {
-                i++;
-            }
-            queue.add(i, newNode);
+        if (size == this.data.length) {
+            grow();
         }
+        siftUp(size++, data, priority, nextOrder++);
     }
+
     public int dequeue() {
-        if (queue.isEmpty()) {
+        if (size == 0) {
             System.out.println("Priority Queue is empty. Cannot dequeue.");
             return -1;
         }
-        return queue.removeFirst().data;
+        int result = data[0];
+        int last = --size;
+        if (last > 0) {
+            siftDown(0, data[last], priority[last], order[last]);
+        }
+        return result;
+    }
+
+    // Returns the data with the lowest priority number without removing it, or -1 if empty.
+    public int peek() {
+        return size == 0 ? -1 : data[0];
+    }
+
+    public int peekPriority() {
+        return size == 0 ? -1 : priority[0];
+    }
+
+    // Moves the "hole" at index up until the new element fits, then writes it once.
+    private void siftUp(int index, int d, int p, long o) {
+        while (index > 0) {
+            int parent = (index - 1) / arity;
+            if (!less(p, o, priority[parent], order[parent])) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        set(index, d, p, o);
     }
+
+    // Moves the "hole" at index down to the smallest child until the element fits.
+    private void siftDown(int index, int d, int p, long o) {
+        while (true) {
+            int firstChild = arity * index + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int best = firstChild;
+            for (int c = firstChild + 1; c < lastChild; c++) {
+                if (less(priority[c], order[c], priority[best], order[best])) {
+                    best = c;
+                }
+            }
+            if (!less(priority[best], order[best], p, o)) {
+                break;
+            }
+            move(best, index);
+            index = best;
+        }
+        set(index, d, p, o);
+    }
+
+    private static boolean less(int p1, long o1, int p2, long o2) {
+        return p1 < p2 || (p1 == p2 && o1 < o2);
+    }
+
+    private void move(int from, int to) {
+        data[to] = data[from];
+        priority[to] = priority[from];
+        order[to] = order[from];
+    }
+
+    private void set(int index, int d, int p, long o) {
+        data[index] = d;
+        priority[index] = p;
+        order[index] = o;
+    }
+
+    private void grow() {
+        int newCapacity = data.length * 2;
+        data = Arrays.copyOf(data, newCapacity);
+        priority = Arrays.copyOf(priority, newCapacity);
+        order = Arrays.copyOf(order, newCapacity);
+    }
+
+    // Prints the elements in dequeue order. The heap array itself is not sorted,
+    // so we pop everything from a copy (toString is for debugging, not the hot path).
     public String toString() {
+        PriorityQueue copy = new PriorityQueue(arity, Math.max(1, size));
+        System.arraycopy(data, 0, copy.data, 0, size);
+        System.arraycopy(priority, 0, copy.priority, 0, size);
+        System.arraycopy(order, 0, copy.order, 0, size);
+        copy.size = size;
+
         StringBuilder sb = new StringBuilder();
         sb.append("[");
-        for (int i = 0; i < queue.size(); i++) {
-            sb.append("(").append(queue.get(i).data).append(", ").append(queue.get(i).priority).append(")");
-            if (i < queue.size() - 1) {
+        while (copy.size > 0) {
+            sb.append("(").append(copy.data[0]).append(", ").append(copy.priority[0]).append(")");
+            copy.dequeue();
+            if (copy.size > 0) {
                 sb.append(", ");
             }
         }
         sb.append("]");
         return sb.toString();
     }
+
     public boolean isEmpty() {
-        return queue.isEmpty();
+        return size == 0;
     }
+
     public int size() {
-        return queue.size();
+        return size;
     }
-    
+
 }
@@ -50,34 +50,32 @@ Note: -In Java, the Queue interface is part of the java.util package and is impl
         - Breadth-First Search (BFS) algorithm in graph traversal
 
  */
-import java.util.LinkedList;   
 public class Queue {
 
     public static void main(String[] args) {
         
         //Implementing Simple Queue
-        LinkedList<Integer> queue = new LinkedList<>();
+        // IntQueue (IntQueue.java) stores ints directly in int[] chunks.
+        // java.util.LinkedList<Integer> would box every value and allocate a node per element.
+        IntQueue queue = new IntQueue();
 
         // Enqueue operation
-        queue.addLast(10);
-        queue.addLast(20);
-        queue.addLast(30);
+        queue.offer(10);
+        queue.offer(20);
+        queue.offer(30);
         System.out.println("Queue after enqueuing elements: " + queue);
 
-        // officially we use offer() method to add elements in queue
-        // queue.offer(10);
-        // queue.offer(20);
-        // queue.offer(30);
-        // System.out.println("Queue after enqueuing elements using offer(): " + queue);
+        // With java.util.LinkedList<Integer> the same would be
+        // queue.addLast(10); or queue.offer(10);
         // Both addLast() and offer() methods add elements at the end of the queue.
 
         // Dequeue operation
-        int removedElement = queue.removeFirst();
+        int removedElement = queue.poll();
         System.out.println("Dequeued element: " + removedElement);
         System.out.println("Queue after dequeuing an element: " + queue);
 
         // Peek operation
-        int frontElement = queue.getFirst();
+        int frontElement = queue.peek();
         System.out.println("Front element: " + frontElement);
 
         // Check if the queue is empty
@@ -119,6 +117,42 @@ public class Queue {
         System.out.println("Is Circular Queue full? " + circularQueue.isFull());
         System.out.println("Size of Circular Queue: " + circularQueue.size());  
 
+        // Batch operations: move many elements with at most two array copies
+        CircularQueue batchQueue = new CircularQueue(capacity);
+        int[] batch = {1, 2, 3, 4, 5, 6, 7};
+        int added = batchQueue.enqueueAll(batch, 0, batch.length);
+        System.out.println("Enqueued " + added + " of " + batch.length + " elements in one batch: " + batchQueue);
+
+        int[] drained = new int[3];
+        int removed = batchQueue.drainTo(drained, drained.length);
+        System.out.println("Drained " + removed + " elements: " + java.util.Arrays.toString(drained));
+
+        batchQueue.enqueueAll(batch, 5, 2);  // wraps around the end of the array
+        System.out.print("Draining the rest with a consumer: ");
+        batchQueue.drain(value -> System.out.print(value + " "), Integer.MAX_VALUE);
+        System.out.println();
+
+        // Overflow policies: what happens when the circular queue is full
+        CircularQueue rejecting = new CircularQueue(3);  // default policy is REJECT
+        CircularQueue growing = new CircularQueue(3, CircularQueue.OverflowPolicy.GROW);
+        CircularQueue overwriting = new CircularQueue(3, CircularQueue.OverflowPolicy.OVERWRITE_OLDEST);
+        for (int i = 1; i <= 5; i++) {
+            rejecting.offer(i);
+            growing.offer(i);
+            overwriting.offer(i);
+        }
+        System.out.println("REJECT: " + rejecting + ", dropped: " + rejecting.getDroppedCount());
+        System.out.println("GROW: " + growing + ", capacity: " + growing.capacity() + ", resizes: " + growing.getResizeCount());
+        System.out.println("OVERWRITE_OLDEST: " + overwriting + ", overwritten: " + overwriting.getOverwrittenCount());
+
+        // A batch that does not fit follows the same policy as single offers
+        rejecting.enqueueAll(batch, 0, 4);
+        growing.enqueueAll(batch, 0, 4);
+        overwriting.enqueueAll(batch, 0, 4);
+        System.out.println("After a batch of 4, REJECT dropped: " + rejecting.getDroppedCount()
+                + ", GROW capacity: " + growing.capacity() + ", OVERWRITE_OLDEST: " + overwriting
+                + " (overwritten: " + overwriting.getOverwrittenCount() + ")");
+
 
         // Note: For Priority Queue implementation, you can use Java's built-in PriorityQueue class from java.util package.
 
@@ -130,7 +164,8 @@ public class Queue {
 
         //But i am creating a class and using it here is an example of PriorityQueue class defined in PriorityQueue.java
         // Make sure to have PriorityQueue.java in the same package or import it accordingly.
-        // Priority queue implementation is using LinkedList in PriorityQueue.java file.
+        // Priority queue implementation is using a d-ary heap on int[] arrays in PriorityQueue.java file.
+        // enqueue and dequeue are O(log n) and equal priorities keep their FIFO order.
 
         PriorityQueue priorityQueue = new PriorityQueue();
 
@@ -139,6 +174,7 @@ public class Queue {
         priorityQueue.enqueue(20, 1); // data: 20, priority: 1
         priorityQueue.enqueue(30, 3); // data: 30, priority: 3
         System.out.println("Priority Queue after enqueuing elements: " + priorityQueue);
+        System.out.println("Peek element: " + priorityQueue.peek());
 
         // Priority Queue after enqueuing elements: [(20, 1), (10, 2), (30, 3)]
 
@@ -182,10 +218,10 @@ Note:
    (CircularQueue.java and PriorityQueue.java) within the same package or imported accordingly.
 
  - The CircularQueue class implements a circular queue using an array, while the PriorityQueue
-   class implements a priority queue using a linked list.
+   class implements a priority queue using a d-ary heap stored in parallel int arrays.
 
  - The main method in the Queue class demonstrates how to use these queue implementations
-   along with Java's built-in LinkedList and PriorityQueue classes.
+   along with the primitive IntQueue and Java's built-in PriorityQueue class.
 
  - Prefer offer() method to add elements in queue instead of addLast() for better readability and convention.
    Because offer() is specifically designed for queue operations.And it returns false if the element cannot be added
@@ -210,8 +246,16 @@ Circular Queue after dequeuing and enqueuing elements: [6, 2, 3, 4, 5]
 Is Circular Queue empty? false
 Is Circular Queue full? true
 Size of Circular Queue: 5
+Enqueued 5 of 7 elements in one batch: [1, 2, 3, 4, 5]
+Drained 3 elements: [1, 2, 3]
+Draining the rest with a consumer: 4 5 6 7 
+REJECT: [1, 2, 3], dropped: 2
+GROW: [1, 2, 3, 4, 5], capacity: 6, resizes: 1
+OVERWRITE_OLDEST: [3, 4, 5], overwritten: 2
+After a batch of 4, REJECT dropped: 6, GROW capacity: 12, OVERWRITE_OLDEST: [2, 3, 4] (overwritten: 6)
 
 Priority Queue after enqueuing elements: [(20, 1), (10, 2), (30, 3)]
+Peek element: 20
 Dequeued element: 20
 Priority Queue after dequeuing an element: [(10, 2), (30, 3)]
 Is Priority Queue empty? false
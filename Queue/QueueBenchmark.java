@@ -0,0 +1,444 @@
+/*
+
+Explaining QueueBenchmark:
+ - Measures the queues in this package against java.util.ArrayDeque, java.util.PriorityQueue
+   and java.util.concurrent.ArrayBlockingQueue, and writes the results as JSON so two runs
+   can be compared to catch regressions.
+
+ What is measured:
+    1. latency     : single thread, queue pre-filled to a size from 16 up to 16M elements,
+                     then offer + poll pairs in steady state (ns per pair).
+    2. batch       : CircularQueue enqueueAll/drainTo with batch sizes 1 .. 1024 (ns per element).
+    3. throughput  : producer/consumer hand-off with 1, 2, 4, 8 and 16 threads
+                     (half producers, half consumers; 1 thread = 1 producer + 1 consumer).
+    4. allocation  : bytes allocated per operation by the measuring thread, for every
+                     single-threaded result (same idea as JMH's "-prof gc").
+
+ How the numbers are taken (the usual micro-benchmark rules):
+    - Every case runs WARMUP_ROUNDS rounds first, so the JIT has compiled the hot loops.
+    - Then MEASURE_ROUNDS rounds are timed and the best (lowest ns/op) round is reported.
+    - Every loop folds its results into a checksum that is printed, so the JIT can not
+      remove the work as dead code.
+
+ Usage:
+    java QueueBenchmark [output.json] [maxQueueSize]
+    e.g. java -Xmx4g QueueBenchmark results.json 16777216
+
+ This is a plain Java harness (this repository has no build tool to pull in JMH). It follows the
+ same structure as a JMH suite, so the cases can be moved into @Benchmark methods one-to-one.
+
+*/
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+public class QueueBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final int OPS_PER_ROUND = 2_000_000;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final int[] BATCH_SIZES = {1, 8, 64, 256, 1024};
+
+    // One line of the JSON report. param is the queue size (latency), the batch size (batch)
+    // or the number of producer threads (throughput).
+    private static final class Result {
+        final String benchmark;
+        final String queue;
+        final long param;
+        final int threads;
+        final double nsPerOp;
+        final double bytesPerOp;
+
+        Result(String benchmark, String queue, long param, int threads, double nsPerOp, double bytesPerOp) {
+            this.benchmark = benchmark;
+            this.queue = queue;
+            this.param = param;
+            this.threads = threads;
+            this.nsPerOp = nsPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        String toJson() {
+            return String.format(java.util.Locale.ROOT,
+                    "{\"benchmark\": \"%s\", \"queue\": \"%s\", \"param\": %d, \"threads\": %d, "
+                            + "\"nsPerOp\": %.3f, \"opsPerSec\": %.0f, \"bytesPerOp\": %.3f}",
+                    benchmark, queue, param, threads, nsPerOp, 1e9 / nsPerOp, bytesPerOp);
+        }
+    }
+
+    // A single-threaded case: runs `ops` operations and returns a checksum
+    private interface Workload {
+        long run(int ops);
+    }
+
+    private static final List<Result> results = new ArrayList<>();
+    private static long blackhole;
+
+    public static void main(String[] args) throws Exception {
+        Path output = Paths.get(args.length > 0 ? args[0] : "queue-benchmark.json");
+        int maxSize = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 24;
+
+        latencyBenchmarks(maxSize);
+        batchBenchmarks();
+        throughputBenchmarks();
+
+        writeJson(output);
+        System.out.println("Checksum: " + blackhole);
+        System.out.println("Wrote " + results.size() + " results to " + output);
+    }
+
+    // ---------------------------------------------------------------- latency
+
+    private static void latencyBenchmarks(int maxSize) {
+        for (int size = 16; size <= maxSize; size *= 16) {
+            final int n = size;
+            // capacity n + 1 so that the queue is never full in steady state
+            CircularQueue circular = new CircularQueue(n + 1);
+            SpscCircularQueue spsc = new SpscCircularQueue(n + 1);
+            MpmcCircularQueue mpmc = new MpmcCircularQueue(n + 1);
+            IntQueue intQueue = new IntQueue();
+            ArrayDeque<Integer> arrayDeque = new ArrayDeque<>(n + 1);
+            ArrayBlockingQueue<Integer> blocking = new ArrayBlockingQueue<>(n + 1);
+            for (int i = 0; i < n; i++) {
+                circular.offer(i);
+                spsc.offer(i);
+                mpmc.offer(i);
+                intQueue.offer(i);
+                arrayDeque.offer(i);
+                blocking.offer(i);
+            }
+
+            single("latency", "CircularQueue", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    circular.offer(i);
+                    sum += circular.size();
+                    circular.dequeue();
+                }
+                return sum;
+            });
+            single("latency", "SpscCircularQueue", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    spsc.offer(i);
+                    sum += spsc.poll();
+                }
+                return sum;
+            });
+            single("latency", "MpmcCircularQueue", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    mpmc.offer(i);
+                    sum += mpmc.poll();
+                }
+                return sum;
+            });
+            single("latency", "IntQueue", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    intQueue.offer(i);
+                    sum += intQueue.poll();
+                }
+                return sum;
+            });
+            single("latency", "java.util.ArrayDeque", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    arrayDeque.offer(i);
+                    sum += arrayDeque.poll();
+                }
+                return sum;
+            });
+            single("latency", "java.util.concurrent.ArrayBlockingQueue", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    blocking.offer(i);
+                    sum += blocking.poll();
+                }
+                return sum;
+            });
+
+            // Priority queues: steady state enqueue + dequeue with random priorities below 4096
+            PriorityQueue heap = new PriorityQueue(4, n + 1);
+            BucketPriorityQueue buckets = new BucketPriorityQueue(4096);
+            java.util.PriorityQueue<Integer> javaHeap = new java.util.PriorityQueue<>(n + 1);
+            int[] priorities = new int[4096];
+            java.util.Random random = new java.util.Random(42);
+            for (int i = 0; i < priorities.length; i++) {
+                priorities[i] = random.nextInt(4096);
+            }
+            for (int i = 0; i < n; i++) {
+                int p = priorities[i & 4095];
+                heap.enqueue(i, p);
+                buckets.enqueue(i, p);
+                javaHeap.offer(p);
+            }
+            single("latency", "PriorityQueue", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    heap.enqueue(i, priorities[i & 4095]);
+                    sum += heap.dequeue();
+                }
+                return sum;
+            });
+            single("latency", "BucketPriorityQueue", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    buckets.enqueue(i, priorities[i & 4095]);
+                    sum += buckets.dequeue();
+                }
+                return sum;
+            });
+            single("latency", "java.util.PriorityQueue", n, ops -> {
+                long sum = 0;
+                for (int i = 0; i < ops; i++) {
+                    javaHeap.offer(priorities[i & 4095]);
+                    sum += javaHeap.poll();
+                }
+                return sum;
+            });
+        }
+    }
+
+    // ---------------------------------------------------------------- batch
+
+    private static void batchBenchmarks() {
+        for (int batchSize : BATCH_SIZES) {
+            final int b = batchSize;
+            CircularQueue circular = new CircularQueue(4096);
+            int[] src = new int[b];
+            int[] dst = new int[b];
+            // Start in the middle of the array so batches regularly wrap around
+            circular.enqueueAll(new int[1000], 0, 1000);
+            circular.drainTo(new int[1000], 1000);
+
+            single("batch", "CircularQueue.enqueueAll+drainTo", b, ops -> {
+                long sum = 0;
+                for (int done = 0; done < ops; done += b) {
+                    circular.enqueueAll(src, 0, b);
+                    sum += circular.drainTo(dst, b);
+                }
+                return sum;
+            });
+            single("batch", "CircularQueue.offer+dequeue", b, ops -> {
+                long sum = 0;
+                for (int done = 0; done < ops; done += b) {
+                    for (int i = 0; i < b; i++) {
+                        circular.offer(i);
+                    }
+                    for (int i = 0; i < b; i++) {
+                        circular.dequeue();
+                    }
+                    sum += circular.size();
+                }
+                return sum;
+            });
+        }
+    }
+
+    // ---------------------------------------------------------------- throughput
+
+    // A queue shared between producer and consumer threads
+    private interface SharedQueue {
+        void put(int value) throws InterruptedException;
+
+        int take() throws InterruptedException;
+    }
+
+    private static void throughputBenchmarks() throws InterruptedException {
+        for (int threads : THREAD_COUNTS) {
+            int producers = Math.max(1, threads / 2);
+            int consumers = Math.max(1, threads - producers);
+
+            MpmcCircularQueue mpmc = new MpmcCircularQueue(1024);
+            multi("MpmcCircularQueue", threads, producers, consumers, new SharedQueue() {
+                public void put(int value) throws InterruptedException {
+                    mpmc.put(value);
+                }
+
+                public int take() throws InterruptedException {
+                    return mpmc.take();
+                }
+            });
+
+            ArrayBlockingQueue<Integer> blocking = new ArrayBlockingQueue<>(1024);
+            multi("java.util.concurrent.ArrayBlockingQueue", threads, producers, consumers, new SharedQueue() {
+                public void put(int value) throws InterruptedException {
+                    blocking.put(value);
+                }
+
+                public int take() throws InterruptedException {
+                    return blocking.take();
+                }
+            });
+
+            CircularQueue circular = new CircularQueue(1024, CircularQueue.OverflowPolicy.BLOCK);
+            multi("CircularQueue(BLOCK)", threads, producers, consumers, new SharedQueue() {
+                public void put(int value) throws InterruptedException {
+                    circular.put(value);
+                }
+
+                final ThreadLocal<int[]> buffers = ThreadLocal.withInitial(() -> new int[1]);
+
+                public int take() {
+                    // CircularQueue has no blocking take, spin on drainTo
+                    int[] one = buffers.get();
+                    for (int attempt = 0; circular.drainTo(one, 1) == 0; attempt++) {
+                        idle(attempt);
+                    }
+                    return one[0];
+                }
+            });
+
+            if (producers == 1 && consumers == 1) {
+                SpscCircularQueue spsc = new SpscCircularQueue(1024);
+                multi("SpscCircularQueue", threads, 1, 1, new SharedQueue() {
+                    public void put(int value) {
+                        for (int attempt = 0; !spsc.offer(value); attempt++) {
+                            idle(attempt);
+                        }
+                    }
+
+                    public int take() {
+                        int value;
+                        for (int attempt = 0; (value = spsc.poll()) == SpscCircularQueue.EMPTY; attempt++) {
+                            idle(attempt);
+                        }
+                        return value;
+                    }
+                });
+            }
+        }
+    }
+
+    // Busy-wait step for the non-blocking queues: spin briefly, then give the core away
+    // (with fewer cores than threads, pure spinning would starve the other side)
+    private static void idle(int attempt) {
+        if (attempt < 100) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    // ---------------------------------------------------------------- harness
+
+    private static void single(String benchmark, String queue, long param, Workload workload) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            blackhole += workload.run(OPS_PER_ROUND);
+        }
+        double bestNs = Double.MAX_VALUE;
+        double bytes = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            blackhole += workload.run(OPS_PER_ROUND);
+            long elapsed = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedBefore;
+            double ns = (double) elapsed / OPS_PER_ROUND;
+            if (ns < bestNs) {
+                bestNs = ns;
+                bytes = (double) allocated / OPS_PER_ROUND;
+            }
+        }
+        record(new Result(benchmark, queue, param, 1, bestNs, bytes));
+    }
+
+    private static void multi(String queue, int threads, int producers, int consumers, SharedQueue shared)
+            throws InterruptedException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            handOff(shared, producers, consumers);
+        }
+        double bestNs = Double.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            bestNs = Math.min(bestNs, handOff(shared, producers, consumers));
+        }
+        record(new Result("throughput", queue, producers, threads, bestNs, Double.NaN));
+    }
+
+    // Moves OPS_PER_ROUND elements from the producers to the consumers. Returns ns per element.
+    private static double handOff(SharedQueue shared, int producers, int consumers) throws InterruptedException {
+        int perProducer = OPS_PER_ROUND / producers;
+        int total = perProducer * producers;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[producers + consumers];
+        long[] sums = new long[consumers];
+        for (int p = 0; p < producers; p++) {
+            workers[p] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        shared.put(i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            final int id = c;
+            // Spread the total over consumers, the first ones take the remainder
+            final int count = total / consumers + (c < total % consumers ? 1 : 0);
+            workers[producers + c] = new Thread(() -> {
+                try {
+                    start.await();
+                    long sum = 0;
+                    for (int i = 0; i < count; i++) {
+                        sum += shared.take();
+                    }
+                    sums[id] = sum;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        for (long sum : sums) {
+            blackhole += sum;
+        }
+        return (double) elapsed / total;
+    }
+
+    // Bytes allocated so far by the current thread, or 0 if the JVM can not tell
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static void record(Result result) {
+        results.add(result);
+        System.out.printf(java.util.Locale.ROOT, "%-10s %-40s param=%-9d threads=%-2d %10.2f ns/op %8.2f B/op%n",
+                result.benchmark, result.queue, result.param, result.threads, result.nsPerOp, result.bytesPerOp);
+    }
+
+    private static void writeJson(Path output) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output))) {
+            out.println("[");
+            for (int i = 0; i < results.size(); i++) {
+                out.print("  " + results.get(i).toJson().replace("NaN", "null"));
+                out.println(i < results.size() - 1 ? "," : "");
+            }
+            out.println("]");
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+
+Explaining Single-Producer / Single-Consumer (SPSC) Circular Queue:
+ - It is the same ring buffer as CircularQueue, but made safe for exactly TWO threads:
+   one thread only adds elements (producer) and one thread only removes them (consumer).
+ - Because each index is written by only one thread, no locks are needed. The producer owns
+   the tail, the consumer owns the head, and each one only READS the other's index.
+
+ Differences from CircularQueue:
+    1. Capacity is rounded up to a power of two, so "index % capacity" becomes "index & mask".
+       A bitwise AND is much cheaper than a division on every step.
+    2. head and tail are ever-increasing counters (long), not wrapped positions.
+       size = tail - head, empty when head == tail, full when tail - head == capacity.
+       So we do not need the front == -1 trick and all slots can be used.
+    3. head and tail live on different cache lines (padding), so the two cores do not
+       keep stealing the same cache line from each other (false sharing).
+    4. Writes are published with release ordering and read with acquire ordering:
+       the producer writes the slot first and then releases the new tail, so when the
+       consumer acquires that tail it is guaranteed to see the slot value.
+    5. offer/poll return a result instead of printing, so they can be used in hot loops.
+
+ Each side also keeps a cached copy of the other side's index, and only re-reads the
+ real (shared) index when the cached value says the queue looks full or empty.
+
+*/
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+public class SpscCircularQueue {
+
+    // Returned by poll() and peek() when the queue is empty.
+    // If you store Integer.MIN_VALUE itself, check isEmpty() before polling.
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // One cache line is 64 bytes = 8 longs. Each group below sits on its own line.
+    private static final int TAIL = 8;          // producer line: tail
+    private static final int HEAD_CACHE = 9;    //                producer's cached copy of head
+    private static final int HEAD = 24;         // consumer line: head
+    private static final int TAIL_CACHE = 25;   //                consumer's cached copy of tail
+    private static final int COUNTERS_LENGTH = 40;
+
+    private final int[] queue;
+    private final int capacity;
+    private final int mask;
+    private final long[] counters;
+
+    public SpscCircularQueue(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        this.capacity = roundUpToPowerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.queue = new int[this.capacity];
+        this.counters = new long[COUNTERS_LENGTH];
+    }
+
+    static int roundUpToPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    // Producer thread only. Returns false if the queue is full.
+    public boolean offer(int value) {
+        long tail = counters[TAIL];   // only the producer writes tail, plain read is fine
+        if (tail - counters[HEAD_CACHE] >= capacity) {
+            counters[HEAD_CACHE] = (long) LONGS.getAcquire(counters, HEAD);
+            if (tail - counters[HEAD_CACHE] >= capacity) {
+                return false;
+            }
+        }
+        queue[(int) tail & mask] = value;
+        LONGS.setRelease(counters, TAIL, tail + 1);
+        return true;
+    }
+
+    // Consumer thread only. Returns EMPTY if there is nothing to take.
+    public int poll() {
+        long head = counters[HEAD];   // only the consumer writes head
+        if (head >= counters[TAIL_CACHE]) {
+            counters[TAIL_CACHE] = (long) LONGS.getAcquire(counters, TAIL);
+            if (head >= counters[TAIL_CACHE]) {
+                return EMPTY;
+            }
+        }
+        int value = queue[(int) head & mask];
+        LONGS.setRelease(counters, HEAD, head + 1);
+        return value;
+    }
+
+    // Consumer thread only. Returns EMPTY if there is nothing to look at.
+    public int peek() {
+        long head = counters[HEAD];
+        if (head >= (long) LONGS.getAcquire(counters, TAIL)) {
+            return EMPTY;
+        }
+        return queue[(int) head & mask];
+    }
+
+    // size, isEmpty and isFull are only a snapshot when both threads are running.
+    public int size() {
+        long head = (long) LONGS.getAcquire(counters, HEAD);
+        long tail = (long) LONGS.getAcquire(counters, TAIL);
+        return (int) (tail - head);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean isFull() {
+        return size() == capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public String toString() {
+        long head = (long) LONGS.getAcquire(counters, HEAD);
+        long tail = (long) LONGS.getAcquire(counters, TAIL);
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (long i = head; i < tail; i++) {
+            sb.append(queue[(int) i & mask]);
+            if (i < tail - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // Capacity 5 is rounded up to 8
+        SpscCircularQueue spsc = new SpscCircularQueue(5);
+        System.out.println("Capacity after rounding: " + spsc.capacity());
+
+        for (int i = 1; i <= 9; i++) {
+            if (!spsc.offer(i)) {
+                System.out.println("Queue is full, could not offer " + i);
+            }
+        }
+        System.out.println("Queue after offering elements: " + spsc);
+        System.out.println("Polled element: " + spsc.poll());
+        System.out.println("Peek element: " + spsc.peek());
+        System.out.println("Size of queue: " + spsc.size());
+
+        // One producer thread and one consumer thread moving ints through the ring
+        final int count = 1_000_000;
+        SpscCircularQueue handOff = new SpscCircularQueue(1024);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!handOff.offer(i)) {
+                    Thread.onSpinWait();
+                }
+            }
+        });
+        producer.start();
+
+        long sum = 0;
+        for (int received = 0; received < count; ) {
+            int value = handOff.poll();
+            if (value == EMPTY) {
+                Thread.onSpinWait();
+                continue;
+            }
+            sum += value;
+            received++;
+        }
+        producer.join();
+        System.out.println("Sum of handed off values: " + sum);
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Capacity after rounding: 8
+Queue is full, could not offer 9
+Queue after offering elements: [1, 2, 3, 4, 5, 6, 7, 8]
+Polled element: 1
+Peek element: 2
+Size of queue: 7
+Sum of handed off values: 499999500000
+
+*/
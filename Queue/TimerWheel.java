@@ -0,0 +1,280 @@
+/*
+
+Explaining Hierarchical Timing Wheel:
+ - A timing wheel is an array of slots used like a clock face. Every slot is a queue of timers.
+   Each "tick" the clock hand moves one slot forward, and every timer in that slot expires.
+        schedule : put the timer in slot (expiryTick & mask)       O(1)
+        cancel   : mark the timer as cancelled                     O(1)
+        tick     : drain one slot in a batch
+   A heap would pay O(log n) for every schedule and cancel instead.
+
+ - One wheel with 64 slots only covers 64 ticks. For longer delays we stack wheels (levels):
+        level 0 : 64 slots, each slot = 1 tick          covers 64 ticks
+        level 1 : 64 slots, each slot = 64 ticks        covers 4096 ticks
+        level 2 : 64 slots, each slot = 4096 ticks      covers 262144 ticks ...
+   A timer goes into the lowest level that can hold its delay. When the hand of a lower level
+   completes a full turn, the next slot of the level above is "cascaded": its timers are
+   scheduled again and fall into a lower (finer) level. Each timer is moved at most once per level.
+   Delays longer than the top level are parked in the top level and cascaded again later.
+   With a single level that is level 0 itself, so a slot only fires the timers that are due.
+
+ - The slots are CircularQueue rings with the GROW policy, and expiry drains them with
+   drainTo into a scratch array, i.e. the same ring buffer design as the rest of this package.
+ - Timers themselves live in parallel arrays (expiry, payload, state) indexed by an int, with a
+   free list for reuse, so scheduling a timer does not create an object.
+ - cancel only marks the timer; it is thrown away when its slot is drained or cascaded.
+   The handle returned by schedule contains a generation number, so an old handle
+   can never cancel a newer timer that reused the same index.
+
+*/
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+public class TimerWheel {
+
+    private static final byte FREE = 0;
+    private static final byte SCHEDULED = 1;
+    private static final byte CANCELLED = 2;
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final int bits;        // log2(wheelSize)
+    private final int mask;
+    private final int levels;
+    private final CircularQueue[][] wheels;   // wheels[level][slot] holds timer indices
+    private final IntConsumer onExpire;       // called with the payload of every expired timer
+    private final int[] scratch = new int[DRAIN_BATCH];
+
+    private long currentTick;
+
+    // Timer pool (struct of arrays)
+    private long[] expiry;
+    private int[] payload;
+    private int[] generation;
+    private byte[] state;
+    private int[] freeList;
+    private int freeCount;
+    private int used;           // indices 0 .. used-1 have been handed out at least once
+    private int pending;        // scheduled, not yet expired or cancelled
+
+    public TimerWheel(long tickDuration, TimeUnit unit, int wheelSize, int levels, IntConsumer onExpire) {
+        if (Integer.bitCount(wheelSize) != 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("Wheel size must be a power of two >= 2: " + wheelSize);
+        }
+        int b = Integer.numberOfTrailingZeros(wheelSize);
+        if (levels < 1 || b * levels > 62) {
+            throw new IllegalArgumentException("Too many levels for wheel size " + wheelSize + ": " + levels);
+        }
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        this.startNanos = System.nanoTime();
+        this.bits = b;
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.onExpire = onExpire;
+        this.wheels = new CircularQueue[levels][wheelSize];
+        for (CircularQueue[] wheel : wheels) {
+            for (int s = 0; s < wheelSize; s++) {
+                wheel[s] = new CircularQueue(4, CircularQueue.OverflowPolicy.GROW);
+            }
+        }
+        int initial = 64;
+        expiry = new long[initial];
+        payload = new int[initial];
+        generation = new int[initial];
+        state = new byte[initial];
+        freeList = new int[initial];
+    }
+
+    // Schedules payload to expire after delay (rounded up to whole ticks, at least one tick).
+    // Returns a handle for cancel().
+    public long schedule(int payload, long delay, TimeUnit unit) {
+        long nanos = unit.toNanos(delay);
+        return scheduleTicks(payload, (nanos + tickNanos - 1) / tickNanos);
+    }
+
+    public long scheduleTicks(int payloadValue, long delayTicks) {
+        int index = allocate();
+        expiry[index] = currentTick + Math.max(1, delayTicks);
+        payload[index] = payloadValue;
+        state[index] = SCHEDULED;
+        pending++;
+        place(index);
+        return ((long) generation[index] << 32) | index;
+    }
+
+    // Returns true if the timer was still pending and is now cancelled.
+    public boolean cancel(long handle) {
+        int index = (int) handle;
+        int gen = (int) (handle >>> 32);
+        if (index < 0 || index >= used || generation[index] != gen || state[index] != SCHEDULED) {
+            return false;
+        }
+        state[index] = CANCELLED;
+        pending--;
+        return true;
+    }
+
+    // Advances the wheel to the current time, expiring everything that is due.
+    public void advance() {
+        advanceTo((System.nanoTime() - startNanos) / tickNanos);
+    }
+
+    // Advances tick by tick until currentTick == targetTick.
+    public void advanceTo(long targetTick) {
+        while (currentTick < targetTick) {
+            tick();
+        }
+    }
+
+    public void tick() {
+        currentTick++;
+        // Find how many levels finished a full turn, then cascade from the highest one down
+        int top = 0;
+        while (top + 1 < levels && (currentTick & ((1L << (bits * (top + 1))) - 1)) == 0) {
+            top++;
+        }
+        for (int level = top; level >= 1; level--) {
+            int slot = (int) (currentTick >>> (bits * level)) & mask;
+            drainSlot(wheels[level][slot]);
+        }
+        drainSlot(wheels[0][(int) currentTick & mask]);
+    }
+
+    // Drains one slot in batches. Timers that are due fire, the others are placed again.
+    // A parked timer can sit in a level 0 slot too (one-level wheel), so every slot checks the
+    // expiry: a timer must never fire early.
+    private void drainSlot(CircularQueue slot) {
+        int n;
+        while ((n = slot.drainTo(scratch, scratch.length)) > 0) {
+            for (int i = 0; i < n; i++) {
+                int index = scratch[i];
+                if (state[index] == CANCELLED) {
+                    release(index);
+                } else if (expiry[index] <= currentTick) {
+                    int value = payload[index];
+                    pending--;
+                    release(index);
+                    onExpire.accept(value);
+                } else {
+                    place(index);
+                }
+            }
+        }
+    }
+
+    // Puts a timer into the lowest level whose range covers its remaining delay
+    private void place(int index) {
+        long delta = expiry[index] - currentTick;
+        int level = 0;
+        while (level + 1 < levels && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        long target = expiry[index];
+        if (delta >= (1L << (bits * levels))) {
+            // Longer than the whole wheel: park it at the furthest slot of the top level
+            target = currentTick + (1L << (bits * levels)) - 1;
+        }
+        int slot = (int) (target >>> (bits * level)) & mask;
+        wheels[level][slot].offer(index);
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeList[--freeCount];
+        }
+        if (used == expiry.length) {
+            int newLength = used * 2;
+            expiry = Arrays.copyOf(expiry, newLength);
+            payload = Arrays.copyOf(payload, newLength);
+            generation = Arrays.copyOf(generation, newLength);
+            state = Arrays.copyOf(state, newLength);
+            freeList = Arrays.copyOf(freeList, newLength);
+        }
+        return used++;
+    }
+
+    private void release(int index) {
+        state[index] = FREE;
+        generation[index]++;
+        freeList[freeCount++] = index;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    // Number of timers that are scheduled and not yet expired or cancelled
+    public int pending() {
+        return pending;
+    }
+
+    public static void main(String[] args) {
+        StringBuilder fired = new StringBuilder();
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 64, 3,
+                id -> fired.append("timer ").append(id).append(" expired\n"));
+
+        wheel.scheduleTicks(1, 5);
+        long second = wheel.scheduleTicks(2, 10);
+        wheel.scheduleTicks(3, 100);       // goes to level 1 and is cascaded down later
+        wheel.scheduleTicks(4, 5000);      // goes to level 2
+        System.out.println("Pending timers: " + wheel.pending());
+
+        System.out.println("Cancelled timer 2? " + wheel.cancel(second));
+        System.out.println("Cancelled timer 2 again? " + wheel.cancel(second));
+
+        wheel.advanceTo(99);
+        System.out.print(fired);
+        fired.setLength(0);
+        System.out.println("Pending timers at tick 99: " + wheel.pending());
+
+        wheel.advanceTo(5000);
+        System.out.print(fired);
+        System.out.println("Pending timers at tick 5000: " + wheel.pending());
+
+        // Many short timeouts, most of them cancelled before they expire
+        int[] expiredCount = new int[1];
+        TimerWheel busy = new TimerWheel(1, TimeUnit.MILLISECONDS, 64, 4, id -> expiredCount[0]++);
+        long[] handles = new long[1_000_000];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = busy.scheduleTicks(i, 1 + (i % 3000));
+        }
+        for (int i = 0; i < handles.length; i += 10) {
+            if (i % 100 != 0) {
+                busy.cancel(handles[i]);
+            }
+        }
+        busy.advanceTo(3000);
+        System.out.println("Expired " + expiredCount[0] + " of " + handles.length + " timers");
+
+        // One level of 64 slots: a delay of 1000 ticks is parked and placed again every turn
+        long[] firedAt = new long[1];
+        TimerWheel[] single = new TimerWheel[1];
+        single[0] = new TimerWheel(1, TimeUnit.MILLISECONDS, 64, 1, id -> firedAt[0] = single[0].currentTick());
+        single[0].scheduleTicks(5, 1000);
+        single[0].advanceTo(999);
+        System.out.println("One-level wheel, pending at tick 999: " + single[0].pending());
+        single[0].advanceTo(2000);
+        System.out.println("One-level wheel, timer scheduled for tick 1000 fired at tick " + firedAt[0]);
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Pending timers: 4
+Cancelled timer 2? true
+Cancelled timer 2 again? false
+timer 1 expired
+Pending timers at tick 99: 2
+timer 3 expired
+timer 4 expired
+Pending timers at tick 5000: 0
+Expired 910000 of 1000000 timers
+One-level wheel, pending at tick 999: 1
+One-level wheel, timer scheduled for tick 1000 fired at tick 1000
+
+*/
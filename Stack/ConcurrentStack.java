@@ -0,0 +1,192 @@
+/*
+
+ConcurrentStack: lock-free Treiber stack with an elimination array.
+
+Treiber stack (the lock-free core):
+    - The stack is a singly linked list and the only shared variable is the top pointer.
+    - push: create a node whose next is the current top, then CAS top from that old top to the node.
+    - pop : read top, then CAS top from it to top.next.
+    - If the CAS fails another thread changed top first, so we read top again and retry.
+      Nobody ever holds a lock, so a slow or paused thread can not block the others.
+
+Problem under high contention: every thread fights for the same top pointer, most CAS attempts
+fail, and the cache line with top keeps bouncing between cores.
+
+Elimination (Hendler, Shavit, Yerushalmi):
+    - A push followed immediately by a pop leaves the stack unchanged. So when a push and a pop
+      collide, the push can hand its value directly to the pop, and neither has to touch top.
+    - After a failed CAS on top, a thread goes to a random slot of a small elimination array:
+        push: puts its node into an empty slot and waits a short time. If a pop takes it, both are
+              done. If not, it takes the node back and tries top again.
+        pop : if the slot holds a node, it takes it with a CAS and is done.
+    - The more threads collide, the more pairs cancel out in the array, so throughput keeps going
+      up where a plain Treiber stack would spend its time retrying.
+
+pop and peek return null when the stack is empty. null elements are not allowed.
+Typical use: a shared free-list of reusable buffers (see main).
+
+*/
+
+package Stack;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ConcurrentStack<T> {
+
+    private static final int SPINS = 64;
+
+    private static final class Node<T> {
+        final T item;
+        Node<T> next;
+
+        Node(T item) {
+            this.item = item;
+        }
+    }
+
+    private final AtomicReference<Node<T>> top = new AtomicReference<>();
+    private final AtomicReferenceArray<Node<T>> elimination;
+
+    public ConcurrentStack() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public ConcurrentStack(int eliminationSlots) {
+        if (eliminationSlots < 1) {
+            throw new IllegalArgumentException("Need at least one elimination slot: " + eliminationSlots);
+        }
+        elimination = new AtomicReferenceArray<>(eliminationSlots);
+    }
+
+    public void push(T item) {
+        if (item == null) {
+            throw new NullPointerException("ConcurrentStack does not allow null elements");
+        }
+        Node<T> node = new Node<>(item);
+        while (true) {
+            Node<T> oldTop = top.get();
+            node.next = oldTop;
+            if (top.compareAndSet(oldTop, node)) {
+                return;
+            }
+            if (eliminatePush(node)) {
+                return;
+            }
+        }
+    }
+
+    public T pop() {
+        while (true) {
+            Node<T> oldTop = top.get();
+            if (oldTop == null) {
+                return null;
+            }
+            if (top.compareAndSet(oldTop, oldTop.next)) {
+                return oldTop.item;
+            }
+            Node<T> node = eliminatePop();
+            if (node != null) {
+                return node.item;
+            }
+        }
+    }
+
+    public T peek() {
+        Node<T> t = top.get();
+        return t == null ? null : t.item;
+    }
+
+    public boolean isEmpty() {
+        return top.get() == null;
+    }
+
+    // Offers the node in a random slot for a while. Returns true if a pop took it.
+    private boolean eliminatePush(Node<T> node) {
+        int slot = ThreadLocalRandom.current().nextInt(elimination.length());
+        if (!elimination.compareAndSet(slot, null, node)) {
+            return false; // slot busy, go back to the stack
+        }
+        for (int i = 0; i < SPINS; i++) {
+            if (elimination.get(slot) != node) {
+                return true; // a pop took it
+            }
+            Thread.onSpinWait();
+        }
+        // Nobody came: take the node back. If that fails, a pop took it at the last moment.
+        return !elimination.compareAndSet(slot, node, null);
+    }
+
+    // Looks at one random slot. Returns the node of a waiting push, or null.
+    private Node<T> eliminatePop() {
+        int slot = ThreadLocalRandom.current().nextInt(elimination.length());
+        Node<T> node = elimination.get(slot);
+        if (node != null && elimination.compareAndSet(slot, node, null)) {
+            return node;
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentStack<String> stack = new ConcurrentStack<>();
+        stack.push("a");
+        stack.push("b");
+        stack.push("c");
+        System.out.println("Top element: " + stack.peek());
+        System.out.println("Popped element: " + stack.pop());
+        System.out.println("Popped element: " + stack.pop());
+        System.out.println("Is the stack empty? " + stack.isEmpty());
+
+        // Shared free-list of 64 buffers: 8 threads take a buffer, use it and give it back
+        ConcurrentStack<int[]> pool = new ConcurrentStack<>(4);
+        for (int i = 0; i < 64; i++) {
+            pool.push(new int[256]);
+        }
+        int threads = 8;
+        int rounds = 200_000;
+        long[] created = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < rounds; i++) {
+                    int[] buffer = pool.pop();
+                    if (buffer == null) {
+                        buffer = new int[256]; // pool ran dry
+                        created[id]++;
+                    }
+                    buffer[0] = i;
+                    pool.push(buffer);
+                }
+            });
+        }
+        for (Thread w : workers) {
+            w.start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        long extra = 0;
+        for (long c : created) {
+            extra += c;
+        }
+        int count = 0;
+        while (pool.pop() != null) {
+            count++;
+        }
+        System.out.println("Buffers in the pool at the end: " + count + " (64 + " + extra + " created when empty)");
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Top element: c
+Popped element: c
+Popped element: b
+Is the stack empty? false
+Buffers in the pool at the end: 64 (64 + 0 created when empty)
+
+*/
@@ -0,0 +1,219 @@
+/*
+
+IntStack: a stack of primitive ints backed by a growable int[] array.
+
+Why not java.util.Stack<Integer>?
+    - java.util.Stack extends Vector, and every Vector method is synchronized. Each push and pop
+      takes a monitor lock even when only one thread ever uses the stack.
+    - It stores Integer objects, so every push of a value outside -128..127 allocates a new object
+      and every pop unboxes it again.
+    - IntStack keeps the values directly in an int[] and its methods are not synchronized.
+      Use one IntStack per thread (or lock it yourself) if several threads need it.
+
+Array layout: elements[0] is the bottom, elements[size - 1] is the top.
+    push : elements[size++] = value, the array doubles when it is full   O(1) amortized
+    pop  : return elements[--size]                                       O(1)
+
+Shrink policy (optional): when shrinking is enabled and the stack drops to a quarter of the
+array length, the array is halved (never below the initial capacity). Halving at 1/4 instead of
+1/2 means a push/pop sequence around the boundary does not resize again and again.
+
+Reversing:
+    - reverse() swaps elements[i] and elements[size - 1 - i] for the first half of the array.
+      O(n) time, O(1) extra space, no recursion (so no StackOverflowError for big stacks).
+    - reversedView() does not copy or move anything. It returns a read-only view that reads the
+      same array from the other end: the view's top is this stack's bottom. O(1).
+
+pop and peek on an empty stack throw EmptyStackException, like java.util.Stack.
+search returns the 1-based position from the top, or -1, like java.util.Stack.
+
+*/
+
+package Stack;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+public class IntStack {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+    private int size;
+    private final int initialCapacity;
+    private final boolean shrink;
+
+    public IntStack() {
+        this(DEFAULT_CAPACITY, false);
+    }
+
+    public IntStack(int initialCapacity) {
+        this(initialCapacity, false);
+    }
+
+    public IntStack(int initialCapacity, boolean shrink) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Initial capacity must be at least 1: " + initialCapacity);
+        }
+        this.initialCapacity = initialCapacity;
+        this.elements = new int[initialCapacity];
+        this.shrink = shrink;
+    }
+
+    public void push(int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, newCapacity(size + 1));
+        }
+        elements[size++] = value;
+    }
+
+    // Pushes values[0], values[1], ... so the last value ends up on top.
+    public void pushAll(int[] values) {
+        pushAll(values, 0, values.length);
+    }
+
+    public void pushAll(int[] values, int off, int len) {
+        if (off < 0 || len < 0 || off + len > values.length) {
+            throw new IndexOutOfBoundsException("off=" + off + ", len=" + len + ", length=" + values.length);
+        }
+        if (size + len > elements.length) {
+            elements = Arrays.copyOf(elements, newCapacity(size + len));
+        }
+        System.arraycopy(values, off, elements, size, len);
+        size += len;
+    }
+
+    public int pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        int value = elements[--size];
+        if (shrink && size <= elements.length / 4 && elements.length / 2 >= initialCapacity) {
+            elements = Arrays.copyOf(elements, elements.length / 2);
+        }
+        return value;
+    }
+
+    public int peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[size - 1];
+    }
+
+    // 1-based distance from the top (top element = 1), or -1 if not found
+    public int search(int value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (elements[i] == value) {
+                return size - i;
+            }
+        }
+        return -1;
+    }
+
+    // Reverses the stack in place: the bottom element becomes the top.
+    public void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            int temp = elements[i];
+            elements[i] = elements[j];
+            elements[j] = temp;
+        }
+    }
+
+    // Read-only view of this stack upside down. It reads the live array, so later pushes and
+    // pops on the stack are visible through the view (they show up at the view's bottom).
+    public ReversedView reversedView() {
+        return new ReversedView();
+    }
+
+    public class ReversedView {
+
+        public int peek() {
+            if (size == 0) {
+                throw new EmptyStackException();
+            }
+            return elements[0];
+        }
+
+        // Element at the given depth from the view's top (0 = top)
+        public int get(int depth) {
+            if (depth < 0 || depth >= size) {
+                throw new IndexOutOfBoundsException("Depth " + depth + " outside stack of size " + size);
+            }
+            return elements[depth];
+        }
+
+        // 1-based distance from the view's top, or -1 if not found
+        public int search(int value) {
+            for (int i = 0; i < size; i++) {
+                if (elements[i] == value) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        // Bottom to top of the view, same format as the stack itself
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("[");
+            for (int i = size - 1; i >= 0; i--) {
+                sb.append(elements[i]);
+                if (i > 0) {
+                    sb.append(", ");
+                }
+            }
+            sb.append("]");
+            return sb.toString();
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        if (shrink && elements.length > initialCapacity) {
+            elements = new int[initialCapacity];
+        }
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    private int newCapacity(int required) {
+        int capacity = Math.max(elements.length * 2, required);
+        if (capacity < 0) {
+            throw new OutOfMemoryError("IntStack too large: " + required);
+        }
+        return capacity;
+    }
+
+    // Bottom to top, same format as java.util.Stack
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[");
+        for (int i = 0; i < size; i++) {
+            sb.append(elements[i]);
+            if (i < size - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
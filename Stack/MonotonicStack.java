@@ -0,0 +1,316 @@
+/*
+
+MonotonicStack: next/previous greater and smaller elements, sliding window max/min and the
+largest rectangle in a histogram, all in O(n) with a monotonic stack (see stack.java header).
+
+Idea (next greater element):
+    - Walk the array from left to right and keep a stack of indices whose next greater element
+      has not been found yet. Their values are non-increasing from bottom to top.
+    - For a new value x, pop every index whose value is smaller than x: x is their next greater.
+      Then push x. Every index is pushed once and popped once => O(n).
+    - Previous greater works the same way, but the answer for x is the element left on top of
+      the stack AFTER popping everything that is <= x.
+    - Sliding window max/min keeps a monotonic DEQUE of at most k indices: new values pop
+      smaller ones from the back, and indices that left the window drop off the front.
+    - Largest rectangle: pop bars that are higher than the new bar; each popped bar's rectangle
+      ends right before the new bar and starts where the popped bar's own run started.
+
+Two ways to use it:
+    1. Batch: static methods over an int[] that return int[] results (-1 = no such element).
+    2. Streaming: the nested *Stream classes take the data in chunks through feed(...) and report
+       results through a callback as soon as they are known, with long indices, so series that do
+       not fit in memory can be processed. Only the unresolved indices are kept:
+           - sliding window: at most k entries, whatever the length of the series
+           - next/previous and histogram: the current monotonic run (in the worst case, a series
+             that only decreases, this is the whole run)
+       Call finish() after the last chunk to flush what is left.
+
+All stacks are primitive long[]/int[] arrays that grow when needed, nothing is boxed.
+
+*/
+
+package Stack;
+
+import java.util.Arrays;
+
+public class MonotonicStack {
+
+    // Receives (index, matchIndex) pairs; matchIndex is -1 when there is no such element
+    public interface IndexListener {
+        void accept(long index, long matchIndex);
+    }
+
+    // Receives the max/min of the window that starts at windowStart
+    public interface WindowListener {
+        void accept(long windowStart, int value);
+    }
+
+    // ---------------------------------------------------------------- batch API
+
+    public static int[] nextGreater(int[] values) {
+        return runNext(values, true);
+    }
+
+    public static int[] nextSmaller(int[] values) {
+        return runNext(values, false);
+    }
+
+    public static int[] previousGreater(int[] values) {
+        return runPrevious(values, true);
+    }
+
+    public static int[] previousSmaller(int[] values) {
+        return runPrevious(values, false);
+    }
+
+    public static int[] slidingWindowMax(int[] values, int k) {
+        return runWindow(values, k, true);
+    }
+
+    public static int[] slidingWindowMin(int[] values, int k) {
+        return runWindow(values, k, false);
+    }
+
+    public static long largestRectangle(int[] heights) {
+        HistogramStream stream = new HistogramStream();
+        stream.feed(heights, 0, heights.length);
+        return stream.finish();
+    }
+
+    private static int[] runNext(int[] values, boolean greater) {
+        int[] result = new int[values.length];
+        NextStream stream = new NextStream(greater, (i, j) -> result[(int) i] = (int) j);
+        stream.feed(values, 0, values.length);
+        stream.finish();
+        return result;
+    }
+
+    private static int[] runPrevious(int[] values, boolean greater) {
+        int[] result = new int[values.length];
+        PreviousStream stream = new PreviousStream(greater, (i, j) -> result[(int) i] = (int) j);
+        stream.feed(values, 0, values.length);
+        return result;
+    }
+
+    private static int[] runWindow(int[] values, int k, boolean max) {
+        int[] result = new int[Math.max(0, values.length - k + 1)];
+        WindowStream stream = new WindowStream(k, max, (start, value) -> result[(int) start] = value);
+        stream.feed(values, 0, values.length);
+        return result;
+    }
+
+    // ---------------------------------------------------------------- streaming API
+
+    // Next greater (or smaller) element. An index is reported when its answer arrives,
+    // or with -1 from finish() if the series ended first.
+    public static final class NextStream {
+        private final boolean greater;
+        private final IndexListener listener;
+        private final IndexStack stack = new IndexStack();
+        private long position;
+
+        public NextStream(boolean greater, IndexListener listener) {
+            this.greater = greater;
+            this.listener = listener;
+        }
+
+        public void feed(int[] chunk, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                int x = chunk[i];
+                while (!stack.isEmpty() && (greater ? stack.topValue() < x : stack.topValue() > x)) {
+                    listener.accept(stack.topIndex(), position);
+                    stack.pop();
+                }
+                stack.push(position++, x);
+            }
+        }
+
+        public void finish() {
+            while (!stack.isEmpty()) {
+                listener.accept(stack.topIndex(), -1);
+                stack.pop();
+            }
+        }
+    }
+
+    // Previous greater (or smaller) element. Every index is reported right when it is fed.
+    public static final class PreviousStream {
+        private final boolean greater;
+        private final IndexListener listener;
+        private final IndexStack stack = new IndexStack();
+        private long position;
+
+        public PreviousStream(boolean greater, IndexListener listener) {
+            this.greater = greater;
+            this.listener = listener;
+        }
+
+        public void feed(int[] chunk, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                int x = chunk[i];
+                while (!stack.isEmpty() && (greater ? stack.topValue() <= x : stack.topValue() >= x)) {
+                    stack.pop();
+                }
+                listener.accept(position, stack.isEmpty() ? -1 : stack.topIndex());
+                stack.push(position++, x);
+            }
+        }
+    }
+
+    // Sliding window max (or min) over windows of k elements. Reports one value per full window.
+    // Memory is a ring of k entries, independent of the length of the series.
+    public static final class WindowStream {
+        private final int k;
+        private final boolean max;
+        private final WindowListener listener;
+        private final long[] indices;
+        private final int[] values;
+        private int head;    // front of the deque (oldest index, best value)
+        private int count;
+        private long position;
+
+        public WindowStream(int k, boolean max, WindowListener listener) {
+            if (k < 1) {
+                throw new IllegalArgumentException("Window size must be at least 1: " + k);
+            }
+            this.k = k;
+            this.max = max;
+            this.listener = listener;
+            this.indices = new long[k];
+            this.values = new int[k];
+        }
+
+        public void feed(int[] chunk, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                int x = chunk[i];
+                // Drop worse values from the back, they can never be the answer again
+                while (count > 0) {
+                    int back = values[(head + count - 1) % k];
+                    if (max ? back > x : back < x) {
+                        break;
+                    }
+                    count--;
+                }
+                // Drop the front if it left the window
+                if (count > 0 && indices[head] <= position - k) {
+                    head = (head + 1) % k;
+                    count--;
+                }
+                int slot = (head + count) % k;
+                indices[slot] = position;
+                values[slot] = x;
+                count++;
+                if (position >= k - 1) {
+                    listener.accept(position - k + 1, values[head]);
+                }
+                position++;
+            }
+        }
+    }
+
+    // Largest rectangle in a histogram fed in chunks. finish() returns the largest area.
+    public static final class HistogramStream {
+        private final IndexStack stack = new IndexStack();   // (start index, height)
+        private long position;
+        private long best;
+
+        public void feed(int[] heights, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                int h = heights[i];
+                if (h < 0) {
+                    throw new IllegalArgumentException("Negative height " + h + " at index " + position);
+                }
+                long start = position;
+                while (!stack.isEmpty() && stack.topValue() >= h) {
+                    best = Math.max(best, (long) stack.topValue() * (position - stack.topIndex()));
+                    start = stack.topIndex();
+                    stack.pop();
+                }
+                stack.push(start, h);
+                position++;
+            }
+        }
+
+        // Largest area so far, including bars that are still open on the stack
+        public long finish() {
+            while (!stack.isEmpty()) {
+                best = Math.max(best, (long) stack.topValue() * (position - stack.topIndex()));
+                stack.pop();
+            }
+            return best;
+        }
+    }
+
+    // Growable stack of (long index, int value) pairs in two parallel arrays
+    private static final class IndexStack {
+        private long[] indices = new long[64];
+        private int[] values = new int[64];
+        private int size;
+
+        void push(long index, int value) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            indices[size] = index;
+            values[size++] = value;
+        }
+
+        void pop() {
+            size--;
+        }
+
+        long topIndex() {
+            return indices[size - 1];
+        }
+
+        int topValue() {
+            return values[size - 1];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] values = {2, 1, 5, 6, 2, 3};
+        System.out.println("Values:           " + Arrays.toString(values));
+        System.out.println("Next greater:     " + Arrays.toString(nextGreater(values)));
+        System.out.println("Next smaller:     " + Arrays.toString(nextSmaller(values)));
+        System.out.println("Previous greater: " + Arrays.toString(previousGreater(values)));
+        System.out.println("Previous smaller: " + Arrays.toString(previousSmaller(values)));
+        System.out.println("Window max (k=3): " + Arrays.toString(slidingWindowMax(values, 3)));
+        System.out.println("Window min (k=3): " + Arrays.toString(slidingWindowMin(values, 3)));
+        System.out.println("Largest rectangle: " + largestRectangle(values));
+
+        // Streaming: 100 chunks of 100000 values, only the window of 1000 entries is kept
+        long[] peak = {Long.MIN_VALUE};
+        WindowStream stream = new WindowStream(1000, true, (start, max) -> peak[0] = Math.max(peak[0], max));
+        int[] chunk = new int[100_000];
+        java.util.Random random = new java.util.Random(7);
+        for (int c = 0; c < 100; c++) {
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = random.nextInt(1_000_000);
+            }
+            stream.feed(chunk, 0, chunk.length);
+        }
+        System.out.println("Highest window max over 10000000 streamed values: " + peak[0]);
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+Values:           [2, 1, 5, 6, 2, 3]
+Next greater:     [2, 2, 3, -1, 5, -1]
+Next smaller:     [1, -1, 4, 4, -1, -1]
+Previous greater: [-1, 0, -1, -1, 3, 3]
+Previous smaller: [-1, -1, 1, 2, 1, 4]
+Window max (k=3): [5, 6, 6, 6]
+Window min (k=3): [1, 1, 2, 2]
+Largest rectangle: 10
+Highest window max over 10000000 streamed values: 999999
+
+*/
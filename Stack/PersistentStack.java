@@ -0,0 +1,174 @@
+/*
+
+PersistentStack: an immutable stack where push and pop return a NEW version and never change
+the old one. Old versions stay valid, so they can be kept as snapshots (undo/redo history).
+
+Structural sharing:
+    - The simple persistent stack is a linked list: push(x) creates a node x -> oldTop.
+      Both versions share every node below, so a snapshot is just keeping a reference: O(1).
+    - Copying a java.util.Stack for every snapshot is O(n) time and memory instead.
+
+Compact chunked representation:
+    - One node per element costs an object header and a pointer for every value.
+    - Here elements are stored in chunks (arrays of CHUNK_SIZE slots). A version is only
+      (chunk, count in that chunk, parent version below the chunk, size).
+
+        version v3 = (chunk B, count 2)      chunk B: [ e, f, _, _ ]   parent -> v2
+        version v2 = (chunk A, count 4)      chunk A: [ a, b, c, d ]   parent -> empty
+
+    - push on a version whose chunk has a free slot right after its elements writes the value
+      into that slot, if no other version has used the slot yet (claimed with a CAS on the chunk's
+      "used" counter). Otherwise, e.g. when an older version pushes again, it starts a new chunk.
+      Slots that a version can see are never written again, so every version stays unchanged.
+    - pop just returns a version with count - 1 (or the parent version). Nothing is copied.
+
+ push, pop, peek and size are O(1). pop and peek on an empty stack throw EmptyStackException.
+ Versions are immutable and can be shared between threads.
+
+*/
+
+package Stack;
+
+import java.util.EmptyStackException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class PersistentStack<T> {
+
+    private static final int CHUNK_SIZE = 32;
+
+    private static final class Chunk {
+        final Object[] items = new Object[CHUNK_SIZE];
+        final AtomicInteger used = new AtomicInteger();   // slots handed out so far
+    }
+
+    private static final PersistentStack<Object> EMPTY = new PersistentStack<>(null, 0, null, 0);
+
+    private final Chunk chunk;
+    private final int count;                   // elements of this version inside chunk
+    private final PersistentStack<T> parent;   // version below this chunk
+    private final int size;
+
+    private PersistentStack(Chunk chunk, int count, PersistentStack<T> parent, int size) {
+        this.chunk = chunk;
+        this.count = count;
+        this.parent = parent;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentStack<T> empty() {
+        return (PersistentStack<T>) EMPTY;
+    }
+
+    public PersistentStack<T> push(T item) {
+        // Try to append into our own chunk, right after our elements
+        if (chunk != null && count < CHUNK_SIZE && chunk.used.compareAndSet(count, count + 1)) {
+            chunk.items[count] = item;
+            return new PersistentStack<>(chunk, count + 1, parent, size + 1);
+        }
+        // Chunk full, or the slot already belongs to another version: start a new chunk
+        Chunk fresh = new Chunk();
+        fresh.used.set(1);
+        fresh.items[0] = item;
+        return new PersistentStack<>(fresh, 1, isEmpty() ? null : this, size + 1);
+    }
+
+    public PersistentStack<T> pop() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        if (count > 1) {
+            return new PersistentStack<>(chunk, count - 1, parent, size - 1);
+        }
+        return parent == null ? empty() : parent;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return (T) chunk.items[count - 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Bottom to top, same format as java.util.Stack
+    public String toString() {
+        Object[] all = new Object[size];
+        int i = size;
+        for (PersistentStack<T> v = this; v != null && v.size > 0; v = v.parent) {
+            for (int j = v.count - 1; j >= 0; j--) {
+                all[--i] = v.chunk.items[j];
+            }
+        }
+        return java.util.Arrays.toString(all);
+    }
+
+    public static void main(String[] args) {
+        PersistentStack<String> empty = PersistentStack.empty();
+        PersistentStack<String> v1 = empty.push("a").push("b");
+        PersistentStack<String> v2 = v1.push("c");
+        PersistentStack<String> v3 = v1.push("x");   // branches off v1, v2 is not affected
+        PersistentStack<String> v4 = v2.pop();
+
+        System.out.println("v1: " + v1);
+        System.out.println("v2: " + v2);
+        System.out.println("v3: " + v3);
+        System.out.println("v4 (v2 popped): " + v4);
+        System.out.println("Top of v3: " + v3.peek() + ", size " + v3.size());
+
+        // Undo/redo for a text editor: every state is a snapshot, taking one is O(1)
+        PersistentStack<PersistentStack<String>> undo = PersistentStack.empty();
+        PersistentStack<PersistentStack<String>> redo = PersistentStack.empty();
+        PersistentStack<String> document = PersistentStack.empty();
+        for (String word : new String[] {"Hello", "big", "world"}) {
+            undo = undo.push(document);
+            document = document.push(word);
+        }
+        System.out.println("Document: " + document);
+
+        redo = redo.push(document);
+        document = undo.peek();
+        undo = undo.pop();
+        System.out.println("After undo: " + document);
+
+        undo = undo.push(document);
+        document = redo.peek();
+        redo = redo.pop();
+        System.out.println("After redo: " + document);
+
+        // One million snapshots of a growing stack share all of their elements
+        PersistentStack<Integer> history = PersistentStack.empty();
+        Object[] snapshots = new Object[1_000_000];
+        for (int i = 0; i < snapshots.length; i++) {
+            history = history.push(i);
+            snapshots[i] = history;
+        }
+        @SuppressWarnings("unchecked")
+        PersistentStack<Integer> middle = (PersistentStack<Integer>) snapshots[499_999];
+        System.out.println("Snapshot 500000 has size " + middle.size() + " and top " + middle.peek());
+    }
+}
+
+/*
+
+Sample output of the above code:
+
+v1: [a, b]
+v2: [a, b, c]
+v3: [a, b, x]
+v4 (v2 popped): [a, b]
+Top of v3: x, size 3
+Document: [Hello, big, world]
+After undo: [Hello, big]
+After redo: [Hello, big, world]
+Snapshot 500000 has size 500000 and top 499999
+
+*/
@@ -41,6 +41,14 @@ Explanation of process of reversing a stack without using another stack:
 5. Repeat: The process repeats until all elements have been processed and the stack is fully 
     reversed.  
 
+Note: popBottom walks the whole stack for every element, so this is O(n^2) time and needs O(n)
+    call-stack depth; a few thousand elements already throw StackOverflowError.
+    So reverseStackWithoutExtraSpace below does it in O(n) instead: the stack is stored in an
+    array (Vector / int[]), and reversing it in place only needs swapping element i with
+    element n - 1 - i for the first half. Still no extra stack, and O(1) extra space.
+    IntStack also has reversedView(), which reads the same array from the other end without
+    moving anything at all.
+
 
 
     Explanation about Monotonic Stack:A Monotonic Stack is a specialized stack data structure that 
@@ -51,21 +59,30 @@ Explanation of process of reversing a stack without using another stack:
     Example of Monotonic Stack Usage:
     - Consider the problem of finding the next greater element for each element in an array.
     - Stack contain 1,2,3,5 now i need to add 4 then i will pop 5 and add 4 then add 5 again.
+    - MonotonicStack.java implements it: next/previous greater and smaller elements, sliding
+      window max/min and the largest rectangle in a histogram, in O(n), also over streamed chunks.
 
 */
 
 
 package Stack;
+import java.util.Collections;
 import java.util.Stack;
 public class stack {
     
     // Function to reverse a stack without using another stack
+    // java.util.Stack is a Vector (a List), so the elements can be swapped in place in O(n)
     public static void reverseStackWithoutExtraSpace(Stack<Integer> stack) {
+        Collections.reverse(stack);
+    }
+
+    // The recursive version explained above, O(n^2) time and O(n) recursion depth
+    public static void reverseStackRecursively(Stack<Integer> stack) {
         if (stack.isEmpty()) {
             return;
         }
         int bottom = popBottom(stack);
-        reverseStackWithoutExtraSpace(stack);
+        reverseStackRecursively(stack);
         stack.push(bottom);
     }
     public static int popBottom(Stack<Integer> stack) {
@@ -78,6 +95,21 @@ public class stack {
             return bottom;
         }
     }
+
+    // Same helpers for IntStack (IntStack.java): no boxing and no synchronized Vector underneath
+    public static void reverseStackWithoutExtraSpace(IntStack stack) {
+        stack.reverse();
+    }
+    public static int popBottom(IntStack stack) {
+        int top = stack.pop();
+        if (stack.isEmpty()) {
+            return top;
+        } else {
+            int bottom = popBottom(stack);
+            stack.push(top);
+            return bottom;
+        }
+    }
     public static void main(String[] args) {
         System.out.println("This is stack data structure in java");
 
@@ -134,5 +166,27 @@ public class stack {
         stack.push(30);
         reverseStackWithoutExtraSpace(stack);
         System.out.println("Reversed stack without extra space: " + stack);
+
+        // Same operations on IntStack, a primitive int stack without locks or boxing
+        IntStack intStack = new IntStack();
+        intStack.pushAll(new int[] {10, 20, 30});
+        System.out.println("IntStack after pushAll: " + intStack);
+        System.out.println("Popped element: " + intStack.pop());
+        System.out.println("Top element: " + intStack.peek());
+        System.out.println("Position of 10 from the top: " + intStack.search(10));
+        intStack.push(30);
+        reverseStackWithoutExtraSpace(intStack);
+        System.out.println("Reversed IntStack without extra space: " + intStack);
+        System.out.println("Reversed view (nothing copied): " + intStack.reversedView());
+
+        // Reversing a big stack: O(n) in place, the recursive version would overflow the call stack
+        IntStack bigStack = new IntStack();
+        for (int i = 0; i < 1_000_000; i++) {
+            bigStack.push(i);
+        }
+        reverseStackWithoutExtraSpace(bigStack);
+        System.out.println("Top after reversing 1000000 elements: " + bigStack.peek());
+        intStack.clear();
+        System.out.println("IntStack after clearing: " + intStack);
     }
 }